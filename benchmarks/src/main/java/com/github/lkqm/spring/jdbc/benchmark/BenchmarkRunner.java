@@ -0,0 +1,23 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行全部基准测试并开启GC profiler输出分配速率(gc.alloc.rate.norm为每次操作分配的字节数).
+ * <p>
+ * 参数与JMH命令行一致, 例如只运行行映射: java -jar target/benchmarks.jar MapperBenchmark -p fields=20
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import com.github.lkqm.spring.jdbc.JdbcTemplateUtils;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+
+/**
+ * 参数绑定到H2内存库的PreparedStatement, 对照组为JdbcTemplate默认的ArgumentPreparedStatementSetter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class StatementState {
+
+        Connection connection;
+        PreparedStatement insert;
+
+        @Setup
+        public void setup(EntityState state) throws Exception {
+            connection = DriverManager.getConnection("jdbc:h2:mem:bind" + state.fields);
+            connection.createStatement().execute(state.createTableSql());
+            insert = connection.prepareStatement(state.insertSql);
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            insert.close();
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public PreparedStatement bindInsert(EntityState state, StatementState statement) throws Exception {
+        JdbcTemplateUtils.bindInsert(state.entity).setValues(statement.insert);
+        return statement.insert;
+    }
+
+    @Benchmark
+    public PreparedStatement baselineInsert(EntityState state, StatementState statement) throws Exception {
+        new ArgumentPreparedStatementSetter(state.insertArgs(state.entity)).setValues(statement.insert);
+        return statement.insert;
+    }
+}
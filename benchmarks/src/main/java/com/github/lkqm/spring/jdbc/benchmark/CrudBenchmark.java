@@ -0,0 +1,73 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import com.github.lkqm.spring.jdbc.JdbcTemplatePlus;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * H2内存库上一次完整的插入、查询、更新、删除, 对照组为JdbcTemplate手写SQL加BeanPropertyRowMapper
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrudBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class DatabaseState {
+
+        SingleConnectionDataSource dataSource;
+        JdbcTemplatePlus jdbcTemplate;
+        RowMapper<?> beanPropertyRowMapper;
+        String table;
+
+        @Setup
+        public void setup(EntityState state) {
+            // 复用同一个连接, 避免建立连接的耗时掩盖框架本身的开销
+            dataSource = new SingleConnectionDataSource("jdbc:h2:mem:crud" + state.fields, true);
+            jdbcTemplate = new JdbcTemplatePlus(dataSource);
+            jdbcTemplate.execute(state.createTableSql());
+            beanPropertyRowMapper = BeanPropertyRowMapper.newInstance(state.entityClass);
+            table = state.table;
+        }
+
+        @TearDown
+        public void tearDown() {
+            jdbcTemplate.execute("drop table " + table);
+            dataSource.destroy();
+        }
+    }
+
+    @Benchmark
+    public void jdbcTemplatePlus(EntityState state, DatabaseState db, Blackhole bh) {
+        JdbcTemplatePlus jdbcTemplate = db.jdbcTemplate;
+        bh.consume(jdbcTemplate.insert(state.entity));
+        bh.consume(jdbcTemplate.findById(1L, state.entityClass));
+        bh.consume(jdbcTemplate.updateById(state.entity));
+        bh.consume(jdbcTemplate.deleteById(1L, state.entityClass));
+    }
+
+    @Benchmark
+    public void baseline(EntityState state, DatabaseState db, Blackhole bh) {
+        JdbcTemplatePlus jdbcTemplate = db.jdbcTemplate;
+        bh.consume(jdbcTemplate.update(state.insertSql, state.insertArgs(state.entity)));
+        bh.consume(jdbcTemplate.queryForObject(state.findSql, db.beanPropertyRowMapper, 1L));
+        bh.consume(jdbcTemplate.update(state.updateSql, state.updateArgs(state.entity)));
+        bh.consume(jdbcTemplate.update(state.deleteSql, 1L));
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import lombok.Data;
+
+/**
+ * 20个字段的实体
+ */
+@Data
+public class Entity20 {
+
+    private Long id;
+    private String userName1;
+    private Integer itemCount1;
+    private Long orderNo1;
+    private BigDecimal totalAmount1;
+    private Timestamp createdTime1;
+    private Boolean enabled1;
+    private Double score1;
+    private String userName2;
+    private Integer itemCount2;
+    private Long orderNo2;
+    private BigDecimal totalAmount2;
+    private Timestamp createdTime2;
+    private Boolean enabled2;
+    private Double score2;
+    private String userName3;
+    private Integer itemCount3;
+    private Long orderNo3;
+    private BigDecimal totalAmount3;
+    private Timestamp createdTime3;
+}
@@ -0,0 +1,17 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import java.math.BigDecimal;
+import lombok.Data;
+
+/**
+ * 5个字段的实体
+ */
+@Data
+public class Entity5 {
+
+    private Long id;
+    private String userName1;
+    private Integer itemCount1;
+    private Long orderNo1;
+    private BigDecimal totalAmount1;
+}
@@ -0,0 +1,73 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import lombok.Data;
+
+/**
+ * 60个字段的实体
+ */
+@Data
+public class Entity60 {
+
+    private Long id;
+    private String userName1;
+    private Integer itemCount1;
+    private Long orderNo1;
+    private BigDecimal totalAmount1;
+    private Timestamp createdTime1;
+    private Boolean enabled1;
+    private Double score1;
+    private String userName2;
+    private Integer itemCount2;
+    private Long orderNo2;
+    private BigDecimal totalAmount2;
+    private Timestamp createdTime2;
+    private Boolean enabled2;
+    private Double score2;
+    private String userName3;
+    private Integer itemCount3;
+    private Long orderNo3;
+    private BigDecimal totalAmount3;
+    private Timestamp createdTime3;
+    private Boolean enabled3;
+    private Double score3;
+    private String userName4;
+    private Integer itemCount4;
+    private Long orderNo4;
+    private BigDecimal totalAmount4;
+    private Timestamp createdTime4;
+    private Boolean enabled4;
+    private Double score4;
+    private String userName5;
+    private Integer itemCount5;
+    private Long orderNo5;
+    private BigDecimal totalAmount5;
+    private Timestamp createdTime5;
+    private Boolean enabled5;
+    private Double score5;
+    private String userName6;
+    private Integer itemCount6;
+    private Long orderNo6;
+    private BigDecimal totalAmount6;
+    private Timestamp createdTime6;
+    private Boolean enabled6;
+    private Double score6;
+    private String userName7;
+    private Integer itemCount7;
+    private Long orderNo7;
+    private BigDecimal totalAmount7;
+    private Timestamp createdTime7;
+    private Boolean enabled7;
+    private Double score7;
+    private String userName8;
+    private Integer itemCount8;
+    private Long orderNo8;
+    private BigDecimal totalAmount8;
+    private Timestamp createdTime8;
+    private Boolean enabled8;
+    private Double score8;
+    private String userName9;
+    private Integer itemCount9;
+    private Long orderNo9;
+}
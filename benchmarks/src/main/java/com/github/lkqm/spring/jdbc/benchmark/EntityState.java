@@ -0,0 +1,210 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+/**
+ * 基准测试的实体状态, 按字段数量参数化.
+ * <p>
+ * 同时提供手写SQL和基于BeanWrapper的参数提取, 作为JdbcTemplate直接使用时的对照组.
+ */
+@State(Scope.Benchmark)
+public class EntityState {
+
+    @Param({"5", "20", "60"})
+    public int fields;
+
+    public Class<?> entityClass;
+    public Object entity;
+    public String table;
+    /**
+     * 属性名, 第一个为id
+     */
+    public List<String> properties;
+    public List<Class<?>> types;
+
+    public String insertSql;
+    public String updateSql;
+    public String findSql;
+    public String deleteSql;
+
+    @Setup
+    public void setup() throws Exception {
+        entityClass = Class.forName(EntityState.class.getPackage().getName() + ".Entity" + fields);
+        table = "entity" + fields;
+        properties = new ArrayList<>();
+        types = new ArrayList<>();
+        for (Field field : entityClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                properties.add(field.getName());
+                types.add(field.getType());
+            }
+        }
+        entity = newEntity(1L);
+
+        StringBuilder columns = new StringBuilder();
+        StringBuilder params = new StringBuilder();
+        StringBuilder sets = new StringBuilder();
+        for (int i = 0; i < properties.size(); i++) {
+            String column = underscore(properties.get(i));
+            columns.append(i == 0 ? "" : ", ").append(column);
+            params.append(i == 0 ? "?" : ", ?");
+            if (i > 0) {
+                sets.append(i == 1 ? "" : ", ").append(column).append(" = ?");
+            }
+        }
+        insertSql = "insert into " + table + "(" + columns + ") values(" + params + ")";
+        updateSql = "update " + table + " set " + sets + " where id = ?";
+        findSql = "select * from " + table + " where id = ?";
+        deleteSql = "delete from " + table + " where id = ?";
+    }
+
+    /**
+     * 创建所有字段都有值的实体
+     */
+    public Object newEntity(long id) throws Exception {
+        Object instance = entityClass.newInstance();
+        BeanWrapper wrapper = new BeanWrapperImpl(instance);
+        for (int i = 0; i < properties.size(); i++) {
+            wrapper.setPropertyValue(properties.get(i), sampleValue(types.get(i), id));
+        }
+        return instance;
+    }
+
+    /**
+     * 对照组: 按insertSql的顺序提取参数
+     */
+    public Object[] insertArgs(Object data) {
+        BeanWrapper wrapper = new BeanWrapperImpl(data);
+        Object[] args = new Object[properties.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = wrapper.getPropertyValue(properties.get(i));
+        }
+        return args;
+    }
+
+    /**
+     * 对照组: 按updateSql的顺序提取参数
+     */
+    public Object[] updateArgs(Object data) {
+        BeanWrapper wrapper = new BeanWrapperImpl(data);
+        Object[] args = new Object[properties.size()];
+        for (int i = 1; i < args.length; i++) {
+            args[i - 1] = wrapper.getPropertyValue(properties.get(i));
+        }
+        args[args.length - 1] = wrapper.getPropertyValue(properties.get(0));
+        return args;
+    }
+
+    public String createTableSql() {
+        StringBuilder sql = new StringBuilder("create table ").append(table).append("(");
+        for (int i = 0; i < properties.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(underscore(properties.get(i))).append(' ')
+                    .append(columnDefinition(types.get(i)));
+            if (i == 0) {
+                sql.append(" primary key");
+            }
+        }
+        return sql.append(")").toString();
+    }
+
+    /**
+     * 内存中的结果集, 行数据与newEntity一致
+     */
+    public SimpleResultSet newResultSet(int rows) throws Exception {
+        SimpleResultSet rs = new SimpleResultSet();
+        rs.setAutoClose(false);
+        for (int i = 0; i < properties.size(); i++) {
+            rs.addColumn(underscore(properties.get(i)), sqlType(types.get(i)), 19, 2);
+        }
+        for (int row = 1; row <= rows; row++) {
+            Object[] values = new Object[properties.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = sampleValue(types.get(i), row);
+            }
+            rs.addRow(values);
+        }
+        return rs;
+    }
+
+    private static Object sampleValue(Class<?> type, long id) {
+        if (type == String.class) {
+            return "name-" + id;
+        } else if (type == Integer.class) {
+            return (int) id;
+        } else if (type == Long.class) {
+            return id;
+        } else if (type == BigDecimal.class) {
+            return BigDecimal.valueOf(id * 100 + 1, 2);
+        } else if (type == Timestamp.class) {
+            return new Timestamp(1600000000000L + id);
+        } else if (type == Boolean.class) {
+            return id % 2 == 0;
+        } else if (type == Double.class) {
+            return id * 0.5;
+        }
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+
+    private static String columnDefinition(Class<?> type) {
+        if (type == String.class) {
+            return "varchar(255)";
+        } else if (type == Integer.class) {
+            return "int";
+        } else if (type == Long.class) {
+            return "bigint";
+        } else if (type == BigDecimal.class) {
+            return "decimal(19, 2)";
+        } else if (type == Timestamp.class) {
+            return "timestamp";
+        } else if (type == Boolean.class) {
+            return "boolean";
+        } else if (type == Double.class) {
+            return "double";
+        }
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+
+    private static int sqlType(Class<?> type) {
+        if (type == String.class) {
+            return Types.VARCHAR;
+        } else if (type == Integer.class) {
+            return Types.INTEGER;
+        } else if (type == Long.class) {
+            return Types.BIGINT;
+        } else if (type == BigDecimal.class) {
+            return Types.DECIMAL;
+        } else if (type == Timestamp.class) {
+            return Types.TIMESTAMP;
+        } else if (type == Boolean.class) {
+            return Types.BOOLEAN;
+        } else if (type == Double.class) {
+            return Types.DOUBLE;
+        }
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+
+    private static String underscore(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : name.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                sb.append('_').append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
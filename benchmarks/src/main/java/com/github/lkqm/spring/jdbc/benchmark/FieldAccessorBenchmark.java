@@ -0,0 +1,121 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import com.github.lkqm.spring.jdbc.FieldAccessor;
+import com.github.lkqm.spring.jdbc.MethodHandleFieldAccessor;
+import com.github.lkqm.spring.jdbc.ReflectionFieldAccessor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 字段访问器读写基本类型与引用类型字段, 对照组为直接访问字段和static final的MethodHandle(可被JIT常量折叠)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldAccessorBenchmark {
+
+    public static class Target {
+        long count;
+        String name;
+    }
+
+    private static final MethodHandle CONSTANT_GETTER;
+    private static final MethodHandle CONSTANT_SETTER;
+
+    static {
+        try {
+            Field field = field("count");
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CONSTANT_GETTER = lookup.unreflectGetter(field).asType(MethodType.methodType(long.class, Object.class));
+            CONSTANT_SETTER = lookup.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, long.class));
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"reflection", "methodHandle"})
+    public String accessor;
+
+    Target target;
+    FieldAccessor count;
+    FieldAccessor name;
+    long value;
+
+    @Setup
+    public void setup() throws Exception {
+        FieldAccessor.Factory factory = "methodHandle".equals(accessor)
+                ? MethodHandleFieldAccessor.FACTORY : ReflectionFieldAccessor.FACTORY;
+        target = new Target();
+        target.name = "name";
+        count = factory.create(field("count"));
+        name = factory.create(field("name"));
+    }
+
+    @Benchmark
+    public long getLong() {
+        return count.getLong(target);
+    }
+
+    @Benchmark
+    public Target setLong() {
+        count.setLong(target, ++value);
+        return target;
+    }
+
+    @Benchmark
+    public Object getObject() {
+        return name.get(target);
+    }
+
+    @Benchmark
+    public Target setObject() {
+        name.set(target, "name");
+        return target;
+    }
+
+    @Benchmark
+    public long baselineGetLong() {
+        return target.count;
+    }
+
+    @Benchmark
+    public Target baselineSetLong() {
+        target.count = ++value;
+        return target;
+    }
+
+    @Benchmark
+    public long constantHandleGetLong() throws Throwable {
+        return (long) CONSTANT_GETTER.invokeExact((Object) target);
+    }
+
+    @Benchmark
+    public Target constantHandleSetLong() throws Throwable {
+        CONSTANT_SETTER.invokeExact((Object) target, ++value);
+        return target;
+    }
+
+    private static Field field(String name) throws NoSuchFieldException {
+        Field field = Target.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+}
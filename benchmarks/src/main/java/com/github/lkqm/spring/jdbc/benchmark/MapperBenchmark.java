@@ -0,0 +1,67 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import com.github.lkqm.spring.jdbc.JdbcTemplateUtils;
+import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * 内存结果集的行映射, 对照组为BeanPropertyRowMapper, 结果为每行的耗时
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int ROWS = 100;
+
+    @State(Scope.Benchmark)
+    public static class MapperState {
+
+        ResultSet resultSet;
+        RowMapper<?> entityRowMapper;
+        RowMapper<?> beanPropertyRowMapper;
+
+        @Setup
+        public void setup(EntityState state) throws Exception {
+            resultSet = state.newResultSet(ROWS);
+            entityRowMapper = JdbcTemplateUtils.parseRowMapper(state.entityClass);
+            beanPropertyRowMapper = BeanPropertyRowMapper.newInstance(state.entityClass);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void entityRowMapper(MapperState state, Blackhole bh) throws Exception {
+        map(state.resultSet, state.entityRowMapper, bh);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void beanPropertyRowMapper(MapperState state, Blackhole bh) throws Exception {
+        map(state.resultSet, state.beanPropertyRowMapper, bh);
+    }
+
+    private static void map(ResultSet rs, RowMapper<?> rowMapper, Blackhole bh) throws Exception {
+        rs.beforeFirst();
+        int rowNum = 0;
+        while (rs.next()) {
+            bh.consume(rowMapper.mapRow(rs, rowNum++));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.lkqm.spring.jdbc.benchmark;
+
+import com.github.lkqm.spring.jdbc.JdbcTemplateUtils;
+import com.github.lkqm.spring.jdbc.PreparedSql;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SQL生成和参数提取, 对照组为手写SQL加BeanWrapper提取参数
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlBenchmark {
+
+    @Benchmark
+    public PreparedSql parseInsert(EntityState state) {
+        return JdbcTemplateUtils.parseInsert(state.entity);
+    }
+
+    @Benchmark
+    public PreparedSql parseUpdate(EntityState state) {
+        return JdbcTemplateUtils.parseUpdate(state.entity);
+    }
+
+    @Benchmark
+    public PreparedSql baselineInsert(EntityState state) {
+        return new PreparedSql(state.insertSql, state.insertArgs(state.entity));
+    }
+
+    @Benchmark
+    public PreparedSql baselineUpdate(EntityState state) {
+        return new PreparedSql(state.updateSql, state.updateArgs(state.entity));
+    }
+}
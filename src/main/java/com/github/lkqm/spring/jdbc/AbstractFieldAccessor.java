@@ -0,0 +1,81 @@
+package com.github.lkqm.spring.jdbc;
+
+/**
+ * 字段访问器基类, 基本类型的getXxx/setXxx默认通过{@link #get(Object)}/{@link #set(Object, Object)}装箱读写.
+ * <p>
+ * 编译期生成的访问器继承该类, 只覆盖字段类型对应的基本类型方法.
+ *
+ * @see EntityMetadataProcessor
+ */
+public abstract class AbstractFieldAccessor implements FieldAccessor {
+
+    @Override
+    public boolean getBoolean(Object obj) {
+        return (Boolean) get(obj);
+    }
+
+    @Override
+    public void setBoolean(Object obj, boolean value) {
+        set(obj, value);
+    }
+
+    @Override
+    public byte getByte(Object obj) {
+        return (Byte) get(obj);
+    }
+
+    @Override
+    public void setByte(Object obj, byte value) {
+        set(obj, value);
+    }
+
+    @Override
+    public short getShort(Object obj) {
+        return (Short) get(obj);
+    }
+
+    @Override
+    public void setShort(Object obj, short value) {
+        set(obj, value);
+    }
+
+    @Override
+    public int getInt(Object obj) {
+        return (Integer) get(obj);
+    }
+
+    @Override
+    public void setInt(Object obj, int value) {
+        set(obj, value);
+    }
+
+    @Override
+    public long getLong(Object obj) {
+        return (Long) get(obj);
+    }
+
+    @Override
+    public void setLong(Object obj, long value) {
+        set(obj, value);
+    }
+
+    @Override
+    public float getFloat(Object obj) {
+        return (Float) get(obj);
+    }
+
+    @Override
+    public void setFloat(Object obj, float value) {
+        set(obj, value);
+    }
+
+    @Override
+    public double getDouble(Object obj) {
+        return (Double) get(obj);
+    }
+
+    @Override
+    public void setDouble(Object obj, double value) {
+        set(obj, value);
+    }
+}
@@ -0,0 +1,298 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.Getter;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.util.concurrent.ListenableFuture;
+
+/**
+ * 异步执行{@link JdbcTemplatePlus}的CRUD操作, 返回ListenableFuture, Java 8及以上可以通过
+ * {@link ListenableFuture#completable()}转换为CompletableFuture.
+ * <p>
+ * 任务在执行器的线程中执行, 不参与调用线程的Spring事务: 每个任务使用独立的连接并自动提交, 调用方回滚不会撤销异步写入,
+ * 异步查询也看不到调用方事务中未提交的数据. 需要事务一致性的操作应在事务内直接使用{@link JdbcTemplatePlus}.
+ * <p>
+ * 默认执行器的并发数不超过连接池大小: JDK 21及以上每个任务使用一个虚拟线程并通过信号量限制并发, 否则使用固定大小的线程池.
+ *
+ * @thread 线程安全的.
+ */
+public class AsyncJdbcTemplatePlus implements DisposableBean {
+
+    /**
+     * 连接池最大连接数的常见属性名: HikariCP, DBCP2/Druid, Tomcat JDBC/DBCP
+     */
+    private static final String[] POOL_SIZE_PROPERTIES = {"maximumPoolSize", "maxTotal", "maxActive"};
+
+    @Getter
+    private final JdbcTemplatePlus jdbcTemplate;
+
+    @Getter
+    private final AsyncListenableTaskExecutor executor;
+
+    /**
+     * 自行创建的执行器, 销毁时关闭
+     */
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * 使用默认执行器, 并发数为连接池最大连接数, 无法获取时为CPU核数的2倍
+     */
+    public AsyncJdbcTemplatePlus(JdbcTemplatePlus jdbcTemplate) {
+        this(jdbcTemplate, detectPoolSize(jdbcTemplate.getDataSource()));
+    }
+
+    /**
+     * 使用默认执行器
+     *
+     * @param poolSize 最大并发数, 一般为连接池最大连接数
+     */
+    public AsyncJdbcTemplatePlus(JdbcTemplatePlus jdbcTemplate, int poolSize) {
+        InnerUtils.assertArgument(poolSize > 0, "Pool size must be positive");
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownedExecutor = newDefaultExecutor(poolSize);
+        this.executor = new TaskExecutorAdapter(this.ownedExecutor);
+    }
+
+    /**
+     * 使用指定的执行器, 执行器由调用方管理
+     */
+    public AsyncJdbcTemplatePlus(JdbcTemplatePlus jdbcTemplate, AsyncListenableTaskExecutor executor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    public ListenableFuture<Integer> insert(final Object data) {
+        return submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return jdbcTemplate.insert(data);
+            }
+        });
+    }
+
+    public ListenableFuture<int[]> insertAll(final Collection<?> data) {
+        return submit(new Callable<int[]>() {
+            @Override
+            public int[] call() {
+                return jdbcTemplate.insertAll(data);
+            }
+        });
+    }
+
+    public ListenableFuture<Integer> updateById(final Object data) {
+        return submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return jdbcTemplate.updateById(data);
+            }
+        });
+    }
+
+    public ListenableFuture<int[]> updateAllById(final Collection<?> data) {
+        return submit(new Callable<int[]>() {
+            @Override
+            public int[] call() {
+                return jdbcTemplate.updateAllById(data);
+            }
+        });
+    }
+
+    public ListenableFuture<Integer> upsert(final Object data) {
+        return submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return jdbcTemplate.upsert(data);
+            }
+        });
+    }
+
+    public ListenableFuture<int[]> upsertAll(final Collection<?> data) {
+        return submit(new Callable<int[]>() {
+            @Override
+            public int[] call() {
+                return jdbcTemplate.upsertAll(data);
+            }
+        });
+    }
+
+    public ListenableFuture<Integer> deleteById(final Object id, final Class<?> entityClass) {
+        return submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return jdbcTemplate.deleteById(id, entityClass);
+            }
+        });
+    }
+
+    public ListenableFuture<Integer> deleteByIds(final Collection<?> ids, final Class<?> entityClass) {
+        return submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return jdbcTemplate.deleteByIds(ids, entityClass);
+            }
+        });
+    }
+
+    public <T> ListenableFuture<T> findById(final Object id, final Class<T> entityClass) {
+        return submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return jdbcTemplate.findById(id, entityClass);
+            }
+        });
+    }
+
+    public <T> ListenableFuture<List<T>> findByIds(final Collection<?> ids, final Class<T> entityClass) {
+        return submit(new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                return jdbcTemplate.findByIds(ids, entityClass);
+            }
+        });
+    }
+
+    /**
+     * 异步执行任意操作, 例如: submit(() -> jdbcTemplate.query(...))
+     */
+    public <T> ListenableFuture<T> submit(Callable<T> task) {
+        return executor.submitListenable(task);
+    }
+
+    /**
+     * 关闭自行创建的执行器
+     */
+    @Override
+    public void destroy() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 创建默认执行器, JDK 21及以上使用虚拟线程
+     */
+    static ExecutorService newDefaultExecutor(int poolSize) {
+        ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+        if (virtual != null) {
+            return new BoundedExecutorService(virtual, poolSize);
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * 通过反射调用Executors.newVirtualThreadPerTaskExecutor(), 低于JDK 21时返回null
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 读取连接池最大连接数
+     */
+    static int detectPoolSize(DataSource dataSource) {
+        if (dataSource != null) {
+            BeanWrapper wrapper = new BeanWrapperImpl(dataSource);
+            for (String property : POOL_SIZE_PROPERTIES) {
+                if (wrapper.isReadableProperty(property)) {
+                    Object value = wrapper.getPropertyValue(property);
+                    if (value instanceof Number && ((Number) value).intValue() > 0) {
+                        return ((Number) value).intValue();
+                    }
+                }
+            }
+        }
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * 通过信号量限制并发数的执行器, 任务在获得许可后才执行, 用于限制虚拟线程占用的连接数
+     */
+    private static class BoundedExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        BoundedExecutorService(ExecutorService delegate, int permits) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(permits);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    permits.acquireUninterruptibly();
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "jdbc-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
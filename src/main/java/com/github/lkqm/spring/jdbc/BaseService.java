@@ -1,7 +1,9 @@
 package com.github.lkqm.spring.jdbc;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 /**
  * CRUD operations for specific type.
@@ -14,6 +16,11 @@ public interface BaseService<T, ID> {
      */
     void insert(T entity);
 
+    /**
+     * Saves all given entities in jdbc batches, generated ids are set back to the entities.
+     */
+    void insertAll(Collection<T> entities);
+
     /**
      * Updates the entity ignore null value fields by its id.
      * <p>
@@ -21,6 +28,25 @@ public interface BaseService<T, ID> {
      */
     void update(T entity);
 
+    /**
+     * Updates all given entities ignore null value fields by their ids in jdbc batches.
+     *
+     * @return the update count of each entity, in iteration order
+     */
+    int[] updateAll(Collection<T> entities);
+
+    /**
+     * Inserts the entity, or updates all fields when an entity with the same id already exists.
+     */
+    void upsert(T entity);
+
+    /**
+     * Upserts all given entities in jdbc batches.
+     *
+     * @return the update count of each entity, in iteration order
+     */
+    int[] upsertAll(Collection<T> entities);
+
     /**
      * Deletes the entity with the give id.
      */
@@ -41,4 +67,58 @@ public interface BaseService<T, ID> {
      */
     List<T> findById(Collection<ID> ids);
 
+    /**
+     * Retrieves an entity by its id, only the given fields are selected and other fields are left default.
+     */
+    T findById(ID id, String... fields);
+
+    /**
+     * Retrieves entities by their ids, only the given fields are selected and other fields are left default.
+     */
+    List<T> findById(Collection<ID> ids, String... fields);
+
+    /**
+     * Retrieves an entity by its id into the result type (e.g. a DTO), only the columns of the result type are selected.
+     */
+    <R> R findById(ID id, Class<R> resultClass);
+
+    /**
+     * Retrieves entities by their ids into the result type (e.g. a DTO), only the columns of the result type are
+     * selected.
+     */
+    <R> List<R> findById(Collection<ID> ids, Class<R> resultClass);
+
+    /**
+     * Returns whether an entity with the given id exists, selecting only the id column.
+     */
+    boolean existsById(ID id);
+
+    /**
+     * Returns the given ids which exist, selecting only the id column.
+     */
+    Set<ID> existsByIds(Collection<ID> ids);
+
+    /**
+     * Returns the number of entities.
+     */
+    long count();
+
+    /**
+     * Returns the number of entities with the given ids.
+     */
+    long countByIds(Collection<ID> ids);
+
+    /**
+     * Retrieves a page of entities ordered by id, starting after the given id (keyset pagination).
+     *
+     * @param lastId the last id of previous page, {@code null} for the first page
+     * @param size   the max number of entities of the page
+     */
+    Slice<T> findPageAfter(ID lastId, int size);
+
+    /**
+     * Walks all entities ordered by id, page by page.
+     */
+    Iterator<Slice<T>> slices(int size);
+
 }
@@ -1,9 +1,20 @@
 package com.github.lkqm.spring.jdbc;
 
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 public class BaseServiceImpl<T, ID> implements BaseService<T, ID> {
@@ -14,6 +25,16 @@ public class BaseServiceImpl<T, ID> implements BaseService<T, ID> {
     private Class<T> entityClass;
     private EntityInfo<T> entityInfo;
 
+    /**
+     * 实体缓存, 为null时不缓存
+     */
+    private volatile EntityCache<ID, T> entityCache;
+
+    /**
+     * 合并并发findById的加载器, 为null时不合并
+     */
+    private volatile EntityLoader<ID, T> entityLoader;
+
     public BaseServiceImpl() {
         init();
     }
@@ -22,6 +43,46 @@ public class BaseServiceImpl<T, ID> implements BaseService<T, ID> {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    /**
+     * 启用实体缓存, findById结果按主键缓存, 通过当前服务写入时自动失效; 直接修改数据库不会使缓存失效.
+     * <p>
+     * 事务中不读写缓存, 避免缓存未提交的数据; 事务中的写入在事务结束后再次失效.
+     *
+     * @param maxSize 最大条数
+     * @param ttl     写入后的存活时间, 小于等于0表示不过期
+     */
+    public void enableCache(int maxSize, long ttl, TimeUnit unit) {
+        this.entityCache = new EntityCache<>(entityClass, maxSize, ttl, unit);
+    }
+
+    public void disableCache() {
+        this.entityCache = null;
+    }
+
+    /**
+     * 获得实体缓存, 可以获取命中率等统计信息
+     *
+     * @return 未启用时返回null
+     */
+    public EntityCache<ID, T> getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * 启用查询合并, 并发的findById在时间窗口内或达到最大批量时合并为一次findByIds
+     *
+     * @param maxBatchSize 每批最大主键个数
+     * @param window       收集主键的时间窗口, 每次合并查询最多增加该延迟
+     * @see EntityLoader 需要在设置jdbcTemplate之后调用
+     */
+    public void enableLoader(int maxBatchSize, long window, TimeUnit unit) {
+        this.entityLoader = new EntityLoader<>(jdbcTemplate, entityClass, maxBatchSize, window, unit);
+    }
+
+    public void disableLoader() {
+        this.entityLoader = null;
+    }
+
     @SuppressWarnings("unchecked")
     private void init() {
         this.entityClass = (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass())
@@ -33,35 +94,232 @@ public class BaseServiceImpl<T, ID> implements BaseService<T, ID> {
     public void insert(T entity) {
         Assert.notNull(entity, "Entity must not be null.");
         jdbcTemplate.insert(entity);
+        invalidate(entity);
+    }
+
+    @Override
+    public void insertAll(Collection<T> entities) {
+        Assert.notNull(entities, "Entities must not be null.");
+        jdbcTemplate.insertAll(entities);
+        invalidateAll(entities);
     }
 
     @Override
     public void update(T entity) {
         Assert.notNull(entity, "Entity must not be null.");
         jdbcTemplate.updateById(entity);
+        invalidate(entity);
+    }
+
+    @Override
+    public int[] updateAll(Collection<T> entities) {
+        Assert.notNull(entities, "Entities must not be null.");
+        int[] rows = jdbcTemplate.updateAllById(entities);
+        invalidateAll(entities);
+        return rows;
+    }
+
+    @Override
+    public void upsert(T entity) {
+        Assert.notNull(entity, "Entity must not be null.");
+        jdbcTemplate.upsert(entity);
+        invalidate(entity);
+    }
+
+    @Override
+    public int[] upsertAll(Collection<T> entities) {
+        Assert.notNull(entities, "Entities must not be null.");
+        int[] rows = jdbcTemplate.upsertAll(entities);
+        invalidateAll(entities);
+        return rows;
     }
 
     @Override
     public long deleteById(ID id) {
         Assert.notNull(id, "Id must not be null.");
-        return jdbcTemplate.deleteById(id, entityClass);
+        long rows = jdbcTemplate.deleteById(id, entityClass);
+        invalidateIds(Collections.singletonList(id));
+        return rows;
     }
 
     @Override
     public long deleteById(Collection<ID> ids) {
         Assert.notNull(ids, "Ids must not be null.");
-        return jdbcTemplate.deleteByIds(ids, entityClass);
+        long rows = jdbcTemplate.deleteByIds(ids, entityClass);
+        invalidateIds(new ArrayList<>(ids));
+        return rows;
     }
 
     @Override
     public T findById(ID id) {
         Assert.notNull(id, "Id must not be null.");
-        return jdbcTemplate.findById(id, entityClass);
+        EntityCache<ID, T> cache = getActiveCache();
+        if (cache == null) {
+            return doFindById(id);
+        }
+        T entity = cache.get(id);
+        if (entity == null) {
+            long stamp = cache.stamp();
+            entity = doFindById(id);
+            cache.put(id, entity, stamp);
+        }
+        return entity;
+    }
+
+    private T doFindById(ID id) {
+        EntityLoader<ID, T> loader = this.entityLoader;
+        if (loader == null) {
+            return jdbcTemplate.findById(id, entityClass);
+        }
+        T entity = loader.load(id);
+        if (entity == null) {
+            throw new EmptyResultDataAccessException(1);
+        }
+        return entity;
     }
 
+    /**
+     * 结果按主键参数顺序返回且不重复; 启用缓存时只查询未命中的主键
+     */
     @Override
     public List<T> findById(Collection<ID> ids) {
         Assert.notEmpty(ids, "Ids must not be null or empty.");
-        return jdbcTemplate.findByIds(ids, entityClass);
+        Set<ID> distinctIds = new LinkedHashSet<>(ids);
+        EntityCache<ID, T> cache = getActiveCache();
+        Map<Object, T> found = new HashMap<>();
+        List<ID> misses = new ArrayList<>();
+        for (ID id : distinctIds) {
+            T entity = (cache != null) ? cache.get(id) : null;
+            if (entity != null) {
+                found.put(id, entity);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            long stamp = (cache != null) ? cache.stamp() : 0L;
+            for (T entity : jdbcTemplate.findByIds(misses, entityClass)) {
+                ID id = getId(entity);
+                found.put(id, entity);
+                if (cache != null) {
+                    cache.put(id, entity, stamp);
+                }
+            }
+        }
+        List<T> results = new ArrayList<>(found.size());
+        for (ID id : distinctIds) {
+            T entity = found.get(id);
+            if (entity != null) {
+                results.add(entity);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public T findById(ID id, String... fields) {
+        Assert.notNull(id, "Id must not be null.");
+        return jdbcTemplate.findById(id, entityClass, fields);
+    }
+
+    @Override
+    public List<T> findById(Collection<ID> ids, String... fields) {
+        Assert.notEmpty(ids, "Ids must not be null or empty.");
+        return jdbcTemplate.findByIds(ids, entityClass, fields);
+    }
+
+    @Override
+    public <R> R findById(ID id, Class<R> resultClass) {
+        Assert.notNull(id, "Id must not be null.");
+        return jdbcTemplate.findById(id, entityClass, resultClass);
+    }
+
+    @Override
+    public <R> List<R> findById(Collection<ID> ids, Class<R> resultClass) {
+        Assert.notEmpty(ids, "Ids must not be null or empty.");
+        return jdbcTemplate.findByIds(ids, entityClass, resultClass);
+    }
+
+    @Override
+    public boolean existsById(ID id) {
+        Assert.notNull(id, "Id must not be null.");
+        return jdbcTemplate.existsById(id, entityClass);
+    }
+
+    @Override
+    public Set<ID> existsByIds(Collection<ID> ids) {
+        Assert.notNull(ids, "Ids must not be null.");
+        return jdbcTemplate.existsByIds(ids, entityClass);
+    }
+
+    @Override
+    public long count() {
+        return jdbcTemplate.count(entityClass);
+    }
+
+    @Override
+    public long countByIds(Collection<ID> ids) {
+        Assert.notNull(ids, "Ids must not be null.");
+        return jdbcTemplate.countByIds(ids, entityClass);
+    }
+
+    @Override
+    public Slice<T> findPageAfter(ID lastId, int size) {
+        return jdbcTemplate.findPageAfter(lastId, size, entityClass);
+    }
+
+    @Override
+    public Iterator<Slice<T>> slices(int size) {
+        return jdbcTemplate.slices(size, entityClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ID getId(T entity) {
+        return (ID) entityInfo.getIdValue(entity);
+    }
+
+    /**
+     * 获得可以读写的缓存, 未启用缓存或处于事务中时返回null
+     */
+    private EntityCache<ID, T> getActiveCache() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        return this.entityCache;
+    }
+
+    private void invalidate(T entity) {
+        if (this.entityCache != null) {
+            invalidateIds(Collections.singletonList(getId(entity)));
+        }
+    }
+
+    private void invalidateAll(Collection<T> entities) {
+        if (this.entityCache != null) {
+            List<ID> ids = new ArrayList<>(entities.size());
+            for (T entity : entities) {
+                ids.add(getId(entity));
+            }
+            invalidateIds(ids);
+        }
+    }
+
+    /**
+     * 使缓存失效; 处于事务中时在事务结束后再次失效, 避免事务期间其他线程缓存了即将过时的数据
+     */
+    private void invalidateIds(final List<?> ids) {
+        final EntityCache<ID, T> cache = this.entityCache;
+        if (cache == null) {
+            return;
+        }
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
     }
 }
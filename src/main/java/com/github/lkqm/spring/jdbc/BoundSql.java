@@ -0,0 +1,146 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+/**
+ * 封装PreparedStatement执行语句, 参数在执行时直接从实体绑定, 不生成中间参数数组.
+ *
+ * @see EntityInfo#setColumnValues
+ */
+@Getter
+@ToString(of = "sql")
+public class BoundSql implements PreparedStatementSetter {
+
+    /**
+     * sql of jdbc prepared statement.
+     */
+    protected final String sql;
+
+    private final EntityInfo<Object> entityInfo;
+    private final Object data;
+    /**
+     * 跳过null值字段
+     */
+    private final boolean selective;
+    /**
+     * 列中是否包含id
+     */
+    private final boolean includeId;
+    /**
+     * 列之后是否追加id参数, 用于where id = ?
+     */
+    private final boolean whereId;
+    /**
+     * 选择性绑定时预先读取的字段值, 与生成语句时使用的值一致, 见{@link EntityInfo#getFieldValues(Object)};
+     * 为null时绑定时读取字段
+     */
+    private final Object[] fieldValues;
+    /**
+     * 只绑定掩码中的字段(包括null值), 第i位表示第i个字段; 为{@link EntityInfo#NONE_MASK}时按selective和includeId绑定
+     */
+    private final long fieldsMask;
+
+    public BoundSql(String sql, EntityInfo<Object> entityInfo, Object data, boolean selective, boolean includeId,
+            boolean whereId) {
+        this.sql = sql;
+        this.entityInfo = entityInfo;
+        this.data = data;
+        this.selective = selective;
+        this.includeId = includeId;
+        this.whereId = whereId;
+        this.fieldValues = null;
+        this.fieldsMask = EntityInfo.NONE_MASK;
+    }
+
+    /**
+     * 跳过null值字段, 使用预先读取的字段值绑定, 不再读取非基本类型字段
+     */
+    public BoundSql(String sql, EntityInfo<Object> entityInfo, Object data, Object[] fieldValues, boolean includeId,
+            boolean whereId) {
+        this.sql = sql;
+        this.entityInfo = entityInfo;
+        this.data = data;
+        this.selective = true;
+        this.includeId = includeId;
+        this.whereId = whereId;
+        this.fieldValues = fieldValues;
+        this.fieldsMask = EntityInfo.NONE_MASK;
+    }
+
+    /**
+     * 绑定掩码中的字段, 之后追加id参数
+     */
+    public BoundSql(String sql, EntityInfo<Object> entityInfo, Object data, long fieldsMask) {
+        this.sql = sql;
+        this.entityInfo = entityInfo;
+        this.data = data;
+        this.selective = false;
+        this.includeId = false;
+        this.whereId = true;
+        this.fieldValues = null;
+        this.fieldsMask = fieldsMask;
+    }
+
+    @Override
+    public void setValues(PreparedStatement ps) throws SQLException {
+        int index;
+        if (fieldsMask != EntityInfo.NONE_MASK) {
+            index = entityInfo.setColumnValues(ps, 1, data, fieldsMask);
+        } else if (fieldValues != null) {
+            index = entityInfo.setColumnValues(ps, 1, data, fieldValues, includeId);
+        } else {
+            index = entityInfo.setColumnValues(ps, 1, data, selective, includeId);
+        }
+        if (whereId) {
+            entityInfo.setIdValue(ps, index, data);
+        }
+    }
+
+    /**
+     * 按绑定顺序获得参数对应的列名, 用于日志等诊断, 执行时不使用
+     */
+    public List<String> getArgNames() {
+        List<String> names = new ArrayList<>();
+        if (fieldsMask != EntityInfo.NONE_MASK) {
+            names.addAll(entityInfo.getColumnNames(fieldsMask, true));
+        } else if (fieldValues != null) {
+            names.addAll(entityInfo.getColumnNamesSelective(fieldValues, includeId, true));
+        } else if (selective) {
+            names.addAll(includeId ? entityInfo.getColumnNamesSelective(data, true)
+                    : entityInfo.getColumnNamesExcludeIdSelective(data, true));
+        } else {
+            names.addAll(includeId ? entityInfo.getColumnNames(true) : entityInfo.getColumnNamesExcludeId(true));
+        }
+        if (whereId) {
+            names.add(entityInfo.getIdColumnName(true));
+        }
+        return names;
+    }
+
+    /**
+     * 按绑定顺序获得参数值, 用于日志等诊断, 执行时不使用
+     */
+    public Object[] getArgs() {
+        List<Object> args = new ArrayList<>();
+        if (fieldsMask != EntityInfo.NONE_MASK) {
+            args.addAll(entityInfo.getColumnValues(data, fieldsMask));
+        } else if (fieldValues != null) {
+            args.addAll(entityInfo.getColumnValuesSelective(data, fieldValues, includeId));
+        } else if (selective) {
+            args.addAll(includeId ? entityInfo.getColumnValuesSelective(data)
+                    : entityInfo.getColumnValuesExcludeIdSelective(data));
+        } else {
+            args.addAll(includeId ? entityInfo.getColumnValues(data) : entityInfo.getColumnValuesExcludeId(data));
+        }
+        if (whereId) {
+            args.add(entityInfo.getIdValue(data));
+        }
+        return args.toArray();
+    }
+}
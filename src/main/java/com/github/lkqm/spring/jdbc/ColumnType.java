@@ -0,0 +1,372 @@
+package com.github.lkqm.spring.jdbc;
+
+import com.github.lkqm.spring.jdbc.EntityInfo.FieldInfo;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 字段类型对应的JDBC参数绑定和结果读取方式, 解析实体时按字段类型确定, 绑定参数和读取结果时不再按值的类型判断.
+ * <p>
+ * 基本类型字段直接读写基本类型值并调用对应的setXxx/getXxx方法, 不产生装箱对象.
+ */
+public enum ColumnType {
+
+    BOOLEAN(Types.BOOLEAN) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setBoolean(index, (Boolean) value);
+        }
+
+        @Override
+        void setPrimitiveValue(PreparedStatement ps, int index, FieldInfo field, Object obj) throws SQLException {
+            ps.setBoolean(index, field.getBoolean(obj));
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            boolean value = rs.getBoolean(index);
+            if (rs.wasNull()) {
+                setNullResult(field, entity);
+            } else if (field.isPrimitive()) {
+                field.setBoolean(entity, value);
+            } else {
+                field.set(entity, Boolean.valueOf(value));
+            }
+        }
+    },
+    BYTE(Types.TINYINT) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setByte(index, (Byte) value);
+        }
+
+        @Override
+        void setPrimitiveValue(PreparedStatement ps, int index, FieldInfo field, Object obj) throws SQLException {
+            ps.setByte(index, field.getByte(obj));
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            byte value = rs.getByte(index);
+            if (rs.wasNull()) {
+                setNullResult(field, entity);
+            } else if (field.isPrimitive()) {
+                field.setByte(entity, value);
+            } else {
+                field.set(entity, Byte.valueOf(value));
+            }
+        }
+    },
+    SHORT(Types.SMALLINT) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setShort(index, (Short) value);
+        }
+
+        @Override
+        void setPrimitiveValue(PreparedStatement ps, int index, FieldInfo field, Object obj) throws SQLException {
+            ps.setShort(index, field.getShort(obj));
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            short value = rs.getShort(index);
+            if (rs.wasNull()) {
+                setNullResult(field, entity);
+            } else if (field.isPrimitive()) {
+                field.setShort(entity, value);
+            } else {
+                field.set(entity, Short.valueOf(value));
+            }
+        }
+    },
+    INT(Types.INTEGER) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setInt(index, (Integer) value);
+        }
+
+        @Override
+        void setPrimitiveValue(PreparedStatement ps, int index, FieldInfo field, Object obj) throws SQLException {
+            ps.setInt(index, field.getInt(obj));
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            int value = rs.getInt(index);
+            if (rs.wasNull()) {
+                setNullResult(field, entity);
+            } else if (field.isPrimitive()) {
+                field.setInt(entity, value);
+            } else {
+                field.set(entity, Integer.valueOf(value));
+            }
+        }
+    },
+    LONG(Types.BIGINT) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setLong(index, (Long) value);
+        }
+
+        @Override
+        void setPrimitiveValue(PreparedStatement ps, int index, FieldInfo field, Object obj) throws SQLException {
+            ps.setLong(index, field.getLong(obj));
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            long value = rs.getLong(index);
+            if (rs.wasNull()) {
+                setNullResult(field, entity);
+            } else if (field.isPrimitive()) {
+                field.setLong(entity, value);
+            } else {
+                field.set(entity, Long.valueOf(value));
+            }
+        }
+    },
+    FLOAT(Types.REAL) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setFloat(index, (Float) value);
+        }
+
+        @Override
+        void setPrimitiveValue(PreparedStatement ps, int index, FieldInfo field, Object obj) throws SQLException {
+            ps.setFloat(index, field.getFloat(obj));
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            float value = rs.getFloat(index);
+            if (rs.wasNull()) {
+                setNullResult(field, entity);
+            } else if (field.isPrimitive()) {
+                field.setFloat(entity, value);
+            } else {
+                field.set(entity, Float.valueOf(value));
+            }
+        }
+    },
+    DOUBLE(Types.DOUBLE) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setDouble(index, (Double) value);
+        }
+
+        @Override
+        void setPrimitiveValue(PreparedStatement ps, int index, FieldInfo field, Object obj) throws SQLException {
+            ps.setDouble(index, field.getDouble(obj));
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            double value = rs.getDouble(index);
+            if (rs.wasNull()) {
+                setNullResult(field, entity);
+            } else if (field.isPrimitive()) {
+                field.setDouble(entity, value);
+            } else {
+                field.set(entity, Double.valueOf(value));
+            }
+        }
+    },
+    STRING(Types.VARCHAR) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setString(index, (String) value);
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            setResult(field, entity, rs.getString(index));
+        }
+    },
+    BIG_DECIMAL(Types.DECIMAL) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setBigDecimal(index, (BigDecimal) value);
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            setResult(field, entity, rs.getBigDecimal(index));
+        }
+    },
+    /**
+     * java.util.Date, 与JdbcTemplate一致按Timestamp绑定
+     */
+    DATE(Types.TIMESTAMP) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            setResult(field, entity, rs.getTimestamp(index));
+        }
+    },
+    SQL_DATE(Types.DATE) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setDate(index, (java.sql.Date) value);
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            setResult(field, entity, rs.getDate(index));
+        }
+    },
+    TIME(Types.TIME) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setTime(index, (Time) value);
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            setResult(field, entity, rs.getTime(index));
+        }
+    },
+    TIMESTAMP(Types.TIMESTAMP) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setTimestamp(index, (Timestamp) value);
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            setResult(field, entity, rs.getTimestamp(index));
+        }
+    },
+    BYTES(Types.VARBINARY) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            ps.setBytes(index, (byte[]) value);
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            setResult(field, entity, rs.getBytes(index));
+        }
+    },
+    /**
+     * 其他类型, 交由JdbcTemplate按值类型处理
+     */
+    OBJECT(SqlTypeValue.TYPE_UNKNOWN) {
+        @Override
+        void setValue(PreparedStatement ps, int index, Object value) throws SQLException {
+            StatementCreatorUtils.setParameterValue(ps, index, SqlTypeValue.TYPE_UNKNOWN, value);
+        }
+
+        @Override
+        void setNull(PreparedStatement ps, int index) throws SQLException {
+            StatementCreatorUtils.setParameterValue(ps, index, SqlTypeValue.TYPE_UNKNOWN, null);
+        }
+
+        @Override
+        void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException {
+            setResult(field, entity, rs.getObject(index, ClassUtils.resolvePrimitiveIfNecessary(field.getType())));
+        }
+    };
+
+    /**
+     * java.sql.Types中的类型
+     */
+    private final int sqlType;
+
+    ColumnType(int sqlType) {
+        this.sqlType = sqlType;
+    }
+
+    public int getSqlType() {
+        return sqlType;
+    }
+
+    /**
+     * 绑定非null参数值
+     */
+    abstract void setValue(PreparedStatement ps, int index, Object value) throws SQLException;
+
+    /**
+     * 绑定基本类型字段的值, 仅当字段为基本类型时调用
+     */
+    void setPrimitiveValue(PreparedStatement ps, int index, FieldInfo field, Object obj) throws SQLException {
+        setValue(ps, index, field.get(obj));
+    }
+
+    /**
+     * 从ResultSet读取列值并设置到实体字段, 基本类型字段使用对应的getXxx/setXxx避免装箱
+     */
+    abstract void readValue(ResultSet rs, int index, FieldInfo field, Object entity) throws SQLException;
+
+    /**
+     * 设置读取到的列值, 基本类型字段为null时保持默认值
+     */
+    static void setResult(FieldInfo field, Object entity, Object value) {
+        if (value == null) {
+            setNullResult(field, entity);
+        } else {
+            field.set(entity, value);
+        }
+    }
+
+    static void setNullResult(FieldInfo field, Object entity) {
+        if (!field.isPrimitive()) {
+            field.set(entity, null);
+        }
+    }
+
+    /**
+     * 绑定null值
+     */
+    void setNull(PreparedStatement ps, int index) throws SQLException {
+        ps.setNull(index, sqlType);
+    }
+
+    /**
+     * 获得Java类型对应的绑定方式
+     */
+    public static ColumnType of(Class<?> type) {
+        if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class || type == Byte.class) {
+            return BYTE;
+        } else if (type == short.class || type == Short.class) {
+            return SHORT;
+        } else if (type == int.class || type == Integer.class) {
+            return INT;
+        } else if (type == long.class || type == Long.class) {
+            return LONG;
+        } else if (type == float.class || type == Float.class) {
+            return FLOAT;
+        } else if (type == double.class || type == Double.class) {
+            return DOUBLE;
+        } else if (type == String.class) {
+            return STRING;
+        } else if (type == BigDecimal.class) {
+            return BIG_DECIMAL;
+        } else if (type == java.sql.Date.class) {
+            return SQL_DATE;
+        } else if (type == Time.class) {
+            return TIME;
+        } else if (type == Timestamp.class) {
+            return TIMESTAMP;
+        } else if (type == java.util.Date.class) {
+            return DATE;
+        } else if (type == byte[].class) {
+            return BYTES;
+        }
+        return OBJECT;
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 数据库方言, 决定不同数据库使用的语句形式和JDBC特性.
+ * <p>
+ * 自定义方言可以通过{@link JdbcTemplatePlus#setDialect(Dialect)}指定, 或者在
+ * META-INF/services/com.github.lkqm.spring.jdbc.Dialect中声明后自动检测, 一般继承{@link StandardDialect}.
+ *
+ * @see Dialects#detect(DatabaseMetaData)
+ */
+public interface Dialect {
+
+    /**
+     * 是否适用于该数据库
+     */
+    boolean supports(DatabaseMetaData metaData) throws SQLException;
+
+    /**
+     * 引用表名或列名, 只引用保留字和大小写混合的名称, 其余原样返回, 例如: `order`, "userName", user_name
+     */
+    String quoteIdentifier(String identifier);
+
+    /**
+     * 为查询语句追加行数限制, 参数: limit
+     */
+    String getLimitSql(String sql);
+
+    /**
+     * 是否支持多行values插入
+     */
+    boolean supportsMultiValuesInsert();
+
+    /**
+     * 单条语句最大绑定参数数量, 多行插入时据此分段
+     */
+    int getMaxBindParameters();
+
+    /**
+     * 多行插入单条语句最大行数
+     */
+    int getMaxInsertRows();
+
+    /**
+     * 多行values插入时能否按顺序返回全部自增主键
+     */
+    boolean supportsMultiValuesGeneratedKeys();
+
+    /**
+     * 是否按列名获取自增主键, 例如PostgreSQL驱动据此生成returning id, 而不是returning *
+     */
+    boolean supportsGeneratedKeyColumns();
+
+    /**
+     * 获得数组参数的元素类型名称, 返回null表示该类型不使用数组绑定
+     *
+     * @see #getInArraySql(String)
+     */
+    String getArrayTypeName(ColumnType type);
+
+    /**
+     * 获得绑定单个数组参数的in条件, 例如: id = any(?); 返回null表示不支持数组绑定, 使用in (?, ?)
+     */
+    String getInArraySql(String column);
+
+    /**
+     * 获得插入或更新语句, 主键冲突时更新其他列; 参数顺序与插入全部列一致
+     *
+     * @param table    表名
+     * @param idColumn 主键列名
+     * @param columns  全部列名(包括主键)
+     */
+    String getUpsertSql(String table, String idColumn, List<String> columns);
+}
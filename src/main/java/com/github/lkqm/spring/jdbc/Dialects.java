@@ -0,0 +1,49 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * 数据库方言检测, 依次匹配ServiceLoader声明的方言和内置方言, 都不匹配时使用{@link StandardDialect}.
+ */
+public class Dialects {
+
+    private static final List<Dialect> BUILT_IN = Collections.unmodifiableList(Arrays.<Dialect>asList(
+            MySqlDialect.INSTANCE, H2Dialect.INSTANCE, PostgreSqlDialect.INSTANCE));
+
+    private static volatile List<Dialect> providers;
+
+    /**
+     * 根据数据库元数据检测方言
+     */
+    public static Dialect detect(DatabaseMetaData metaData) throws SQLException {
+        for (Dialect dialect : getProviders()) {
+            if (dialect.supports(metaData)) {
+                return dialect;
+            }
+        }
+        for (Dialect dialect : BUILT_IN) {
+            if (dialect.supports(metaData)) {
+                return dialect;
+            }
+        }
+        return StandardDialect.INSTANCE;
+    }
+
+    private static List<Dialect> getProviders() {
+        List<Dialect> providers = Dialects.providers;
+        if (providers == null) {
+            providers = new ArrayList<>();
+            for (Dialect dialect : ServiceLoader.load(Dialect.class, Dialects.class.getClassLoader())) {
+                providers.add(dialect);
+            }
+            Dialects.providers = providers;
+        }
+        return providers;
+    }
+}
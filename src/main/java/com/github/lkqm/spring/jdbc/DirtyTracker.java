@@ -0,0 +1,126 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 脏检查, 保存实体加载时的字段值快照, 更新时据此只写入发生变化的列.
+ * <p>
+ * 快照按实体对象的标识(而不是equals)保存, 弱引用实体, 实体被回收后快照自动清除.
+ * <p>
+ * 快照保存每个字段值的引用(Date和byte[]为副本), 而不是哈希值或位图: 比较结果必须精确, 哈希冲突会把变化误判为未变化,
+ * 更新被静默跳过. 字段值本身已被实体引用, 快照额外占用的主要是数组本身; 可以通过{@link #DirtyTracker(int)}限制快照数量,
+ * 超过上限的实体不记录快照, 更新时按非null字段更新.
+ *
+ * @thread 线程安全的.
+ * @see JdbcTemplatePlus#setDirtyTracker(DirtyTracker)
+ */
+public class DirtyTracker {
+
+    private final ConcurrentHashMap<IdentityKey, Object[]> snapshots = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final int maxSize;
+
+    public DirtyTracker() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxSize 快照数量上限, 达到上限后新加载的实体不再记录快照
+     */
+    public DirtyTracker(int maxSize) {
+        InnerUtils.assertArgument(maxSize > 0, "Max size must be positive: %s", maxSize);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 记录实体当前的字段值快照, 覆盖之前的快照
+     */
+    public <T> void snapshot(EntityInfo<T> entityInfo, T entity) {
+        putSnapshot(entity, entityInfo.createSnapshot(entity));
+    }
+
+    /**
+     * 记录已创建的快照, 覆盖之前的快照; 快照数量达到上限且实体没有快照时不记录
+     *
+     * @see EntityInfo#createSnapshot(Object)
+     */
+    void putSnapshot(Object entity, Object[] snapshot) {
+        expungeStaleEntries();
+        if (snapshots.size() >= maxSize && !isTracked(entity)) {
+            return;
+        }
+        snapshots.put(new IdentityKey(entity, queue), snapshot);
+    }
+
+    /**
+     * 获得相对快照发生变化的字段掩码
+     *
+     * @return 没有快照或字段数量超过64时返回{@link EntityInfo#NONE_MASK}
+     * @see EntityInfo#getChangedFieldsMask(Object, Object[])
+     */
+    public <T> long getChangedFieldsMask(EntityInfo<T> entityInfo, T entity) {
+        Object[] snapshot = snapshots.get(new IdentityKey(entity, null));
+        if (snapshot == null) {
+            return EntityInfo.NONE_MASK;
+        }
+        return entityInfo.getChangedFieldsMask(entity, snapshot);
+    }
+
+    public boolean isTracked(Object entity) {
+        return snapshots.containsKey(new IdentityKey(entity, null));
+    }
+
+    /**
+     * 删除实体的快照, 之后的更新不再做脏检查
+     */
+    public void forget(Object entity) {
+        snapshots.remove(new IdentityKey(entity, null));
+    }
+
+    /**
+     * 获得快照数量, 包括实体已回收但还未清除的快照
+     */
+    public int size() {
+        expungeStaleEntries();
+        return snapshots.size();
+    }
+
+    private void expungeStaleEntries() {
+        Object key;
+        while ((key = queue.poll()) != null) {
+            snapshots.remove(key);
+        }
+    }
+
+    /**
+     * 弱引用实体, 按对象标识比较
+     */
+    private static class IdentityKey extends WeakReference<Object> {
+
+        private final int hash;
+
+        IdentityKey(Object entity, ReferenceQueue<Object> queue) {
+            super(entity, queue);
+            this.hash = System.identityHashCode(entity);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof IdentityKey)) {
+                return false;
+            }
+            Object entity = get();
+            return entity != null && entity == ((IdentityKey) obj).get();
+        }
+    }
+}
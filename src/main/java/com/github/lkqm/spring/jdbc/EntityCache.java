@@ -0,0 +1,171 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 实体缓存, 按主键缓存实体副本, 用于读多写少的表.
+ * <ul>
+ * <li>LRU淘汰, 超过最大条数时淘汰最久未访问的实体</li>
+ * <li>写入后超过存活时间的实体视为过期</li>
+ * <li>存入和读取时都复制实体, 调用方修改返回的实体不会影响缓存</li>
+ * <li>读取数据库期间发生失效时放弃写入, 避免缓存旧数据</li>
+ * </ul>
+ *
+ * @thread 线程安全的.
+ * @see BaseServiceImpl#enableCache(int, long, TimeUnit)
+ */
+public class EntityCache<ID, T> {
+
+    private final EntityInfo<T> entityInfo;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<ID, Entry<T>> entries;
+
+    /**
+     * 失效次数, 用于判断读取数据库期间是否发生过失效
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param maxSize 最大条数
+     * @param ttl     写入后的存活时间, 小于等于0表示不过期
+     */
+    public EntityCache(Class<T> entityClass, int maxSize, long ttl, TimeUnit unit) {
+        InnerUtils.assertArgument(maxSize > 0, "Cache max size must be positive");
+        this.entityInfo = EntityInfo.newInstance(entityClass);
+        this.maxSize = maxSize;
+        this.ttlNanos = (ttl > 0) ? unit.toNanos(ttl) : 0L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * 获得缓存实体的副本
+     *
+     * @return 不存在或已过期时返回null
+     */
+    public T get(ID id) {
+        T value = null;
+        synchronized (entries) {
+            Entry<T> entry = entries.get(id);
+            if (entry != null && isExpired(entry, System.nanoTime())) {
+                entries.remove(id);
+                evictionCount.incrementAndGet();
+            } else if (entry != null) {
+                value = entry.value;
+            }
+        }
+        if (value == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entityInfo.copyEntity(value);
+    }
+
+    /**
+     * 获得当前失效戳, 读取数据库前获取, 写入缓存时传入
+     *
+     * @see #put(Object, Object, long)
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * 缓存实体的副本, 获取失效戳之后发生过失效时不写入
+     */
+    public void put(ID id, T entity, long stamp) {
+        if (id == null || entity == null) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(entityInfo.copyEntity(entity), System.nanoTime());
+        synchronized (entries) {
+            if (stamp != invalidations.get()) {
+                return;
+            }
+            entries.put(id, entry);
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * 使主键对应的缓存失效
+     */
+    public void invalidate(Object id) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    /**
+     * 使多个主键对应的缓存失效
+     */
+    public void invalidateAll(Iterable<?> ids) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            for (Object id : ids) {
+                entries.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private boolean isExpired(Entry<T> entry, long now) {
+        return ttlNanos > 0 && now - entry.writeTime >= ttlNanos;
+    }
+
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<ID, Entry<T>>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private static class Entry<T> {
+
+        private final T value;
+        private final long writeTime;
+
+        Entry(T value, long writeTime) {
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.lkqm.spring.jdbc;
+
+/**
+ * 逐个处理查询得到的实体.
+ *
+ * @see JdbcTemplatePlus#forEach(String, Class, EntityCallback, Object...)
+ */
+public interface EntityCallback<T> {
+
+    /**
+     * 处理一个实体, 每行调用一次
+     */
+    void process(T entity);
+}
@@ -1,9 +1,17 @@
 package com.github.lkqm.spring.jdbc;
 
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.persistence.Column;
 import javax.persistence.Id;
@@ -12,6 +20,7 @@ import javax.persistence.Transient;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import org.springframework.util.ObjectUtils;
 
 /**
  * 实体类信息
@@ -35,11 +44,62 @@ public class EntityInfo<T> implements Serializable {
     @Getter
     private final List<FieldInfo> fieldsInfo;
 
+    /**
+     * 小写列名到字段的映射, 分别对应原始命名和蛇形命名
+     */
+    private volatile Map<String, FieldInfo> columnFieldsMap;
+    private volatile Map<String, FieldInfo> snakeColumnFieldsMap;
+
+    /**
+     * 创建实例的构造函数, 首次使用时查找
+     */
+    private transient volatile Constructor<?> constructor;
+
+    /**
+     * 编译期生成的实体元数据, 不存在时为null, 通过反射解析和创建实例
+     */
+    private final transient EntityMetadata<T> metadata;
+
+    /**
+     * 预编译SQL缓存, 分别对应原始命名和蛇形命名
+     */
+    private final SqlTemplates sqlTemplates;
+    private final SqlTemplates snakeSqlTemplates;
+
+    /**
+     * 引用标识符的方言, 为null时不引用; 只有按方言区分的实例才设置
+     *
+     * @see #forDialect(Dialect)
+     */
+    private final transient Dialect quoteDialect;
+
+    /**
+     * 需要引用标识符的方言对应的实例, 按方言类型缓存, 首次使用时创建
+     */
+    private transient volatile ConcurrentHashMap<Class<?>, EntityInfo<T>> dialectInfos;
+
+    /**
+     * 按掩码缓存的每类SQL最大数量, 避免宽表null值组合过多时无限增长
+     */
+    private static final int MAX_SQL_CACHE_SIZE = 256;
+
+    /**
+     * 无效的字段掩码
+     */
+    public static final long NONE_MASK = -1L;
+
     /**
      * 默认主键字段名
      */
     private static final String ID_FIELD_NAME = "id";
 
+    /**
+     * 编译期生成的实体元数据类名后缀
+     *
+     * @see EntityMetadataProcessor
+     */
+    public static final String METADATA_CLASS_SUFFIX = "$$EntityMetadata";
+
     /**
      * 实例对象缓存
      */
@@ -47,48 +107,90 @@ public class EntityInfo<T> implements Serializable {
 
     private EntityInfo(Class<T> clazz, boolean fastFailed) {
         this.classInfo = new ClassInfo(clazz);
+        this.metadata = null;
+        this.sqlTemplates = new SqlTemplates();
+        this.snakeSqlTemplates = new SqlTemplates();
+        this.quoteDialect = null;
         Field[] fields = clazz.getDeclaredFields();
         this.fieldsInfo = new ArrayList<>(fields.length);
 
         int idCount = 0;
-        Field namedIdField = null;
+        FieldInfo namedIdField = null;
         for (int i = 0; i < fields.length; i++) {
             Field field = fields[i];
             if (!InnerUtils.isEntityGenericField(field)) {
                 continue;
             }
+            FieldInfo fieldInfo = this.addField(field);
             Id annotation = field.getAnnotation(Id.class);
             if (annotation != null) {
-                this.setIdField(field);
+                this.idFieldInfo = fieldInfo;
                 idCount++;
             }
             if (ID_FIELD_NAME.equals(field.getName())) {
-                namedIdField = field;
+                namedIdField = fieldInfo;
             }
-            this.addField(field);
         }
         InnerUtils.assertArgument(idCount <= 1, "Found multiple @Id in class %s", clazz.getName());
         // 默认id字段
         if (this.idFieldInfo == null && namedIdField != null) {
-            this.setIdField(namedIdField);
+            this.idFieldInfo = namedIdField;
         }
         InnerUtils.assertArgument(!fastFailed || this.idFieldInfo != null,
                 "Unable found id filed with annotation @Id or named 'id' in class %s", clazz.getName());
     }
 
+    /**
+     * 通过编译期生成的元数据创建, 不再反射读取字段和注解
+     */
+    private EntityInfo(EntityMetadata<T> metadata) {
+        Class<T> clazz = metadata.getEntityClass();
+        this.classInfo = new ClassInfo<>(clazz, metadata.getTableName());
+        this.metadata = metadata;
+        this.sqlTemplates = new SqlTemplates();
+        this.snakeSqlTemplates = new SqlTemplates();
+        this.quoteDialect = null;
+        this.fieldsInfo = new ArrayList<>(metadata.createFields());
+        String idFieldName = metadata.getIdFieldName();
+        for (int i = 0; i < fieldsInfo.size(); i++) {
+            FieldInfo fieldInfo = fieldsInfo.get(i);
+            if (fieldInfo.getFieldName().equals(idFieldName)) {
+                this.idFieldInfo = fieldInfo;
+            }
+        }
+    }
+
+    /**
+     * 按方言引用标识符的实例, 共享字段信息; 不需要引用的命名方式共享原实例的SQL缓存
+     */
+    private EntityInfo(EntityInfo<T> entityInfo, Dialect quoteDialect) {
+        this.classInfo = entityInfo.classInfo;
+        this.metadata = entityInfo.metadata;
+        this.fieldsInfo = entityInfo.fieldsInfo;
+        this.idFieldInfo = entityInfo.idFieldInfo;
+        this.quoteDialect = quoteDialect;
+        this.sqlTemplates = entityInfo.needsQuote(quoteDialect, false) ? new SqlTemplates() : entityInfo.sqlTemplates;
+        this.snakeSqlTemplates = entityInfo.needsQuote(quoteDialect, true) ? new SqlTemplates()
+                : entityInfo.snakeSqlTemplates;
+    }
+
     public static <T> EntityInfo<T> newInstance(Class<T> clazz) {
         return newInstance(clazz, true);
     }
 
+    /**
+     * 获得实体类信息, 不加锁: 并发首次解析同一个类时可能重复解析, 但只有一个结果被缓存, 不同类之间互不阻塞.
+     *
+     * @param fastFailed 没有主键字段时是否抛出异常
+     */
     public static <T> EntityInfo<T> newInstance(Class<T> clazz, boolean fastFailed) {
         EntityInfo entityInfo = INSTANCE_CACHE.get(clazz);
         if (entityInfo == null) {
-            synchronized (EntityInfo.class) {
-                entityInfo = INSTANCE_CACHE.get(clazz);
-                if (entityInfo == null) {
-                    entityInfo = new EntityInfo(clazz, fastFailed);
-                    INSTANCE_CACHE.put(clazz, entityInfo);
-                }
+            EntityMetadata<T> metadata = findMetadata(clazz);
+            EntityInfo<T> newEntityInfo = (metadata != null) ? new EntityInfo<>(metadata) : new EntityInfo<>(clazz, false);
+            entityInfo = INSTANCE_CACHE.putIfAbsent(clazz, newEntityInfo);
+            if (entityInfo == null) {
+                entityInfo = newEntityInfo;
             }
         }
         InnerUtils.assertArgument(!fastFailed || entityInfo.idFieldInfo != null,
@@ -96,6 +198,100 @@ public class EntityInfo<T> implements Serializable {
         return entityInfo;
     }
 
+    /**
+     * 查找编译期生成的元数据类, 即同一包下类名为实体类名加{@link #METADATA_CLASS_SUFFIX}的类
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> EntityMetadata<T> findMetadata(Class<T> clazz) {
+        ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return null;
+        }
+        Class<?> metadataClass;
+        try {
+            metadataClass = Class.forName(clazz.getName() + METADATA_CLASS_SUFFIX, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        InnerUtils.assertState(EntityMetadata.class.isAssignableFrom(metadataClass),
+                "Class %s must implements %s", metadataClass.getName(), EntityMetadata.class.getName());
+        EntityMetadata<?> metadata = InnerUtils.createObject(metadataClass.asSubclass(EntityMetadata.class));
+        InnerUtils.assertState(metadata.getEntityClass() == clazz, "Entity metadata %s not match class %s",
+                metadataClass.getName(), clazz.getName());
+        // 实体类型已检查
+        return (EntityMetadata<T>) metadata;
+    }
+
+    /**
+     * 获得按方言引用标识符的实例, 生成的SQL中保留字或大小写混合的表名、列名按方言引用, 例如: select id, `order` from t.
+     * <p>
+     * 没有需要引用的标识符时返回当前实例, 语句和缓存与不区分方言时相同.
+     *
+     * @param dialect 为null时返回当前实例
+     * @see Dialect#quoteIdentifier(String)
+     */
+    public EntityInfo<T> forDialect(Dialect dialect) {
+        if (dialect == null || quoteDialect != null) {
+            return this;
+        }
+        ConcurrentHashMap<Class<?>, EntityInfo<T>> infos = dialectInfos;
+        if (infos == null) {
+            infos = new ConcurrentHashMap<>();
+            dialectInfos = infos;
+        }
+        EntityInfo<T> entityInfo = infos.get(dialect.getClass());
+        if (entityInfo == null) {
+            entityInfo = (needsQuote(dialect, true) || needsQuote(dialect, false)) ? new EntityInfo<>(this, dialect)
+                    : this;
+            EntityInfo<T> exist = infos.putIfAbsent(dialect.getClass(), entityInfo);
+            entityInfo = (exist != null) ? exist : entityInfo;
+        }
+        return entityInfo;
+    }
+
+    /**
+     * 表名或任一列名是否需要按方言引用
+     */
+    private boolean needsQuote(Dialect dialect, boolean snake) {
+        String tableName = getTableName(snake);
+        if (!dialect.quoteIdentifier(tableName).equals(tableName)) {
+            return true;
+        }
+        for (FieldInfo fieldInfo : fieldsInfo) {
+            String column = fieldInfo.getColumnName(snake);
+            if (!fieldInfo.isTransients() && !dialect.quoteIdentifier(column).equals(column)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按方言引用SQL中的标识符, 不区分方言的实例原样返回
+     */
+    private String quote(String identifier) {
+        return (quoteDialect != null) ? quoteDialect.quoteIdentifier(identifier) : identifier;
+    }
+
+    private List<String> quote(List<String> identifiers) {
+        if (quoteDialect == null) {
+            return identifiers;
+        }
+        List<String> results = new ArrayList<>(identifiers.size());
+        for (String identifier : identifiers) {
+            results.add(quoteDialect.quoteIdentifier(identifier));
+        }
+        return results;
+    }
+
+    private String sqlTableName(boolean snake) {
+        return quote(getTableName(snake));
+    }
+
+    private String sqlIdColumnName(boolean snake) {
+        return quote(getIdColumnName(snake));
+    }
+
     //--------------------------------------------------------------------------
     // 表和主键
     //--------------------------------------------------------------------------
@@ -168,6 +364,38 @@ public class EntityInfo<T> implements Serializable {
         return doGetColumnNames(obj, true, snake, false);
     }
 
+    /**
+     * 获取列, 排除null列, 字段值来自{@link #getFieldValues(Object)}, 不再读取字段
+     *
+     * @param includeId 是否包含id列
+     */
+    public List<String> getColumnNamesSelective(Object[] fieldValues, boolean includeId, boolean snake) {
+        List<FieldInfo> fields = this.fieldsInfo;
+        List<String> results = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            FieldInfo fieldInfo = fields.get(i);
+            if (isSkipped(fieldInfo, fieldValues[i], includeId)) {
+                continue;
+            }
+            results.add(fieldInfo.getColumnName(snake));
+        }
+        return results;
+    }
+
+    /**
+     * 获取字段掩码对应的列, 第i位表示第i个字段
+     */
+    public List<String> getColumnNames(long fieldsMask, boolean snake) {
+        List<FieldInfo> fields = this.fieldsInfo;
+        List<String> results = new ArrayList<>(Long.bitCount(fieldsMask));
+        for (int i = 0; i < fields.size(); i++) {
+            if ((fieldsMask & (1L << i)) != 0) {
+                results.add(fields.get(i).getColumnName(snake));
+            }
+        }
+        return results;
+    }
+
     /**
      * 获得列列表
      *
@@ -184,7 +412,7 @@ public class EntityInfo<T> implements Serializable {
             if (fieldInfo.isTransients() || (selective && fieldInfo.get(obj) == null)) {
                 continue;
             }
-            if (!includeId && idFieldInfo != null && idFieldInfo.getField() == fieldInfo.getField()) {
+            if (!includeId && fieldInfo == idFieldInfo) {
                 continue;
             }
             results.add(fieldInfo.getColumnName(snake));
@@ -206,6 +434,38 @@ public class EntityInfo<T> implements Serializable {
         return doGetColumnValues(obj, true, true);
     }
 
+    /**
+     * 获取列值, 排除null值, 非基本类型字段值来自{@link #getFieldValues(Object)}, 不再读取
+     *
+     * @param includeId 是否包含id列
+     */
+    public List<Object> getColumnValuesSelective(T obj, Object[] fieldValues, boolean includeId) {
+        List<FieldInfo> fields = this.fieldsInfo;
+        List<Object> results = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            FieldInfo fieldInfo = fields.get(i);
+            if (isSkipped(fieldInfo, fieldValues[i], includeId)) {
+                continue;
+            }
+            results.add(fieldInfo.isPrimitive() ? fieldInfo.get(obj) : fieldValues[i]);
+        }
+        return results;
+    }
+
+    /**
+     * 获取字段掩码对应的列值, 第i位表示第i个字段
+     */
+    public List<Object> getColumnValues(T obj, long fieldsMask) {
+        List<FieldInfo> fields = this.fieldsInfo;
+        List<Object> results = new ArrayList<>(Long.bitCount(fieldsMask));
+        for (int i = 0; i < fields.size(); i++) {
+            if ((fieldsMask & (1L << i)) != 0) {
+                results.add(fields.get(i).get(obj));
+            }
+        }
+        return results;
+    }
+
     /**
      * 获取列值, 排除id字段
      */
@@ -236,7 +496,7 @@ public class EntityInfo<T> implements Serializable {
             if (fieldInfo.isTransients() || (selective && fieldInfo.get(obj) == null)) {
                 continue;
             }
-            if (!includeId && idFieldInfo != null && idFieldInfo.getField() == fieldInfo.getField()) {
+            if (!includeId && fieldInfo == idFieldInfo) {
                 continue;
             }
             results.add(fieldInfo.get(obj));
@@ -244,6 +504,128 @@ public class EntityInfo<T> implements Serializable {
         return results;
     }
 
+    /**
+     * 根据列名(忽略大小写)获得字段信息, 也可以直接使用字段名
+     *
+     * @return 没有对应字段时返回null
+     */
+    public FieldInfo getFieldInfoByColumn(String column, boolean snake) {
+        return initColumnIndex(snake).get(column.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * 获得小写列名到字段的映射, 首次使用时创建; 列名优先, 字段名不与列名冲突时也可以使用
+     */
+    private Map<String, FieldInfo> initColumnIndex(boolean snake) {
+        Map<String, FieldInfo> columnFields = snake ? snakeColumnFieldsMap : columnFieldsMap;
+        if (columnFields != null) {
+            return columnFields;
+        }
+        columnFields = new HashMap<>();
+        for (FieldInfo fieldInfo : fieldsInfo) {
+            columnFields.put(fieldInfo.getColumnName(snake).toLowerCase(Locale.ENGLISH), fieldInfo);
+        }
+        for (FieldInfo fieldInfo : fieldsInfo) {
+            String fieldName = fieldInfo.getFieldName().toLowerCase(Locale.ENGLISH);
+            if (!columnFields.containsKey(fieldName)) {
+                columnFields.put(fieldName, fieldInfo);
+            }
+        }
+        if (snake) {
+            snakeColumnFieldsMap = columnFields;
+        } else {
+            columnFieldsMap = columnFields;
+        }
+        return columnFields;
+    }
+
+    //--------------------------------------------------------------------------
+    // 参数绑定, 字段值直接写入PreparedStatement, 不生成中间集合
+    //--------------------------------------------------------------------------
+
+    /**
+     * 绑定列值到PreparedStatement, 每个字段只读取一次
+     *
+     * @param index     起始参数位置
+     * @param selective 跳过null值字段
+     * @param includeId 是否包含id列
+     * @return 下一个参数位置
+     */
+    public int setColumnValues(PreparedStatement ps, int index, T obj, boolean selective, boolean includeId)
+            throws SQLException {
+        List<FieldInfo> fields = this.fieldsInfo;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldInfo fieldInfo = fields.get(i);
+            if (fieldInfo.isTransients() || (!includeId && fieldInfo == idFieldInfo)) {
+                continue;
+            }
+            if (fieldInfo.setParameter(ps, index, obj, selective)) {
+                index++;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 绑定非null列值到PreparedStatement, 非基本类型字段值来自{@link #getFieldValues(Object)}, 基本类型字段直接读取
+     *
+     * @param index     起始参数位置
+     * @param includeId 是否包含id列
+     * @return 下一个参数位置
+     */
+    public int setColumnValues(PreparedStatement ps, int index, T obj, Object[] fieldValues, boolean includeId)
+            throws SQLException {
+        List<FieldInfo> fields = this.fieldsInfo;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldInfo fieldInfo = fields.get(i);
+            if (isSkipped(fieldInfo, fieldValues[i], includeId)) {
+                continue;
+            }
+            if (fieldInfo.isPrimitive()) {
+                fieldInfo.setParameter(ps, index++, obj, false);
+            } else {
+                fieldInfo.getColumnType().setValue(ps, index++, fieldValues[i]);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 选择性插入/更新时是否跳过该字段: @Transient字段, 不包含id时的id字段, 值为null的非基本类型字段
+     */
+    private boolean isSkipped(FieldInfo fieldInfo, Object value, boolean includeId) {
+        return fieldInfo.isTransients() || (!includeId && fieldInfo == idFieldInfo)
+                || (!fieldInfo.isPrimitive() && value == null);
+    }
+
+    /**
+     * 绑定字段掩码对应的列值到PreparedStatement, null值也会绑定
+     *
+     * @param index      起始参数位置
+     * @param fieldsMask 第i位表示第i个字段
+     * @return 下一个参数位置
+     */
+    public int setColumnValues(PreparedStatement ps, int index, T obj, long fieldsMask) throws SQLException {
+        List<FieldInfo> fields = this.fieldsInfo;
+        for (int i = 0; i < fields.size(); i++) {
+            if ((fieldsMask & (1L << i)) != 0) {
+                fields.get(i).setParameter(ps, index++, obj, false);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 绑定主键值到PreparedStatement
+     *
+     * @return 下一个参数位置
+     */
+    public int setIdValue(PreparedStatement ps, int index, T obj) throws SQLException {
+        checkIdInfo();
+        idFieldInfo.setParameter(ps, index, obj, false);
+        return index + 1;
+    }
+
     //--------------------------------------------------------------------------
     // SQL Snippet
     //--------------------------------------------------------------------------
@@ -255,6 +637,13 @@ public class EntityInfo<T> implements Serializable {
         return doGetInsertColumnsSqlSnippet(null, false, snake);
     }
 
+    /**
+     * 获得插入语句中列代码段，不包括id 例如: name, age
+     */
+    public String getInsertColumnsSqlSnippetExcludeId(boolean snake) {
+        return InnerUtils.join(", ", quote(getColumnNamesExcludeId(snake)));
+    }
+
     /**
      * 获得插入语句中列代码段，不包括null值字段 例如: id, name
      */
@@ -271,7 +660,7 @@ public class EntityInfo<T> implements Serializable {
      * @return
      */
     public String doGetInsertColumnsSqlSnippet(T obj, boolean selective, boolean snake) {
-        List<String> columns = selective ? getColumnNamesSelective(obj, snake) : getColumnNames(snake);
+        List<String> columns = quote(selective ? getColumnNamesSelective(obj, snake) : getColumnNames(snake));
         return InnerUtils.join(", ", columns);
     }
 
@@ -305,7 +694,8 @@ public class EntityInfo<T> implements Serializable {
      * @return
      */
     public String doGetUpdateSetSqlSnippet(T obj, boolean selective, boolean snake) {
-        List<String> columns = selective ? getColumnNamesExcludeIdSelective(obj, snake) : getColumnNamesExcludeId(snake);
+        List<String> columns = quote(selective ? getColumnNamesExcludeIdSelective(obj, snake)
+                : getColumnNamesExcludeId(snake));
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < columns.size(); i++) {
             sb.append(columns.get(i)).append("=?");
@@ -316,33 +706,618 @@ public class EntityInfo<T> implements Serializable {
         return sb.toString();
     }
 
+    //--------------------------------------------------------------------------
+    // SQL语句, 结果只与实体类型、命名方式和null值字段有关, 因此缓存复用
+    //--------------------------------------------------------------------------
+
     /**
-     * 创建该类型的一个实例，通过无参构造函数
+     * 获得插入语句(全部列)
      */
-    public T createEntityObject() {
-        Class<T> clazz = classInfo.getClazz();
-        return InnerUtils.createObject(clazz);
+    public String getInsertSql(boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.insert;
+        if (sql == null) {
+            List<String> columns = quote(getColumnNames(snake));
+            sql = String.format("insert into %s(%s) values(%s)", sqlTableName(snake), InnerUtils.join(", ", columns),
+                    InnerUtils.join(", ", InnerUtils.fillList("?", columns.size())));
+            templates.insert = sql;
+        }
+        return sql;
     }
 
-    //--------------------------------------------------------------------------
-    // 辅助函数
-    //--------------------------------------------------------------------------
+    /**
+     * 获得插入语句, 不包括null值字段
+     */
+    public String getInsertSqlSelective(T obj, boolean snake) {
+        return getInsertSqlSelective(getFieldValues(obj), snake);
+    }
+
+    /**
+     * 获得插入语句, 不包括null值字段, 字段值来自{@link #getFieldValues(Object)}, 不再读取字段
+     */
+    public String getInsertSqlSelective(Object[] fieldValues, boolean snake) {
+        long mask = getNullFieldsMask(fieldValues);
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = (mask != NONE_MASK) ? templates.insertSelective.get(mask) : null;
+        if (sql == null) {
+            List<String> columns = quote(getColumnNamesSelective(fieldValues, true, snake));
+            sql = String.format("insert into %s(%s) values(%s)", sqlTableName(snake), InnerUtils.join(", ", columns),
+                    InnerUtils.join(", ", InnerUtils.fillList("?", columns.size())));
+            cacheSql(templates.insertSelective, mask, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得多行插入语句(全部列), 例如: insert into t(id, name) values(?, ?), (?, ?)
+     *
+     * @param rows      行数
+     * @param includeId 是否包含id列
+     */
+    public String getInsertValuesSql(int rows, boolean includeId, boolean snake) {
+        long key = ((long) rows << 1) | (includeId ? 1 : 0);
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.insertValues.get(key);
+        if (sql == null) {
+            List<String> columns = quote(includeId ? getColumnNames(snake) : getColumnNamesExcludeId(snake));
+            String rowReplacer = "(" + InnerUtils.join(", ", InnerUtils.fillList("?", columns.size())) + ")";
+            sql = String.format("insert into %s(%s) values%s", sqlTableName(snake), InnerUtils.join(", ", columns),
+                    InnerUtils.join(", ", InnerUtils.fillList(rowReplacer, rows)));
+            cacheSql(templates.insertValues, key, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据主键更新语句, 不包括null值字段
+     */
+    public String getUpdateByIdSqlSelective(T obj, boolean snake) {
+        return getUpdateByIdSqlSelective(getFieldValues(obj), snake);
+    }
 
     /**
-     * 设置主键信息
+     * 获得根据主键更新语句, 不包括null值字段, 字段值来自{@link #getFieldValues(Object)}, 不再读取字段
      */
-    private void setIdField(Field id) {
-        this.idFieldInfo = new FieldInfo(id);
+    public String getUpdateByIdSqlSelective(Object[] fieldValues, boolean snake) {
+        long mask = getNullFieldsMask(fieldValues);
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = (mask != NONE_MASK) ? templates.updateSelective.get(mask) : null;
+        if (sql == null) {
+            List<String> columns = quote(getColumnNamesSelective(fieldValues, false, snake));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(columns.get(i)).append("=?");
+            }
+            sql = String.format("update %s set %s where %s = ?", sqlTableName(snake), sb, sqlIdColumnName(snake));
+            cacheSql(templates.updateSelective, mask, sql);
+        }
+        return sql;
     }
 
     /**
-     * 添加其他字段信息
+     * 获得根据主键更新语句, 只更新字段掩码对应的列
      *
-     * @param other
+     * @param fieldsMask 第i位表示第i个字段, 不能为0或{@link #NONE_MASK}
+     * @see #getChangedFieldsMask(Object, Object[])
      */
-    private void addField(Field other) {
-        FieldInfo fieldInfo = new FieldInfo(other);
+    public String getUpdateByIdSql(long fieldsMask, boolean snake) {
+        InnerUtils.assertArgument(fieldsMask != 0L && fieldsMask != NONE_MASK, "Invalid fields mask: %s", fieldsMask);
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.updateFields.get(fieldsMask);
+        if (sql == null) {
+            List<String> columns = quote(getColumnNames(fieldsMask, snake));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(columns.get(i)).append("=?");
+            }
+            sql = String.format("update %s set %s where %s = ?", sqlTableName(snake), sb, sqlIdColumnName(snake));
+            cacheSql(templates.updateFields, fieldsMask, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得插入或更新语句(全部列), 语法由数据库方言决定, 按方言类型缓存
+     */
+    public String getUpsertSql(Dialect dialect, boolean snake) {
+        checkIdInfo();
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.upsert.get(dialect.getClass());
+        if (sql == null) {
+            sql = dialect.getUpsertSql(sqlTableName(snake), sqlIdColumnName(snake), quote(getColumnNames(snake)));
+            cacheSql(templates.upsert, dialect, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据主键删除语句
+     */
+    public String getDeleteByIdSql(boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.deleteById;
+        if (sql == null) {
+            sql = String.format("delete from %s where %s = ?", sqlTableName(snake), sqlIdColumnName(snake));
+            templates.deleteById = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据多个主键删除语句
+     *
+     * @param size 主键个数
+     */
+    public String getDeleteByIdsSql(int size, boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.deleteByIds.get((long) size);
+        if (sql == null) {
+            sql = String.format("delete from %s where %s", sqlTableName(snake), getIdInSqlSnippet(size, snake));
+            cacheSql(templates.deleteByIds, size, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据主键查询语句
+     */
+    public String getFindByIdSql(boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.findById;
+        if (sql == null) {
+            sql = String.format("select %s from %s where %s = ?", getInsertColumnsSqlSnippet(snake),
+                    sqlTableName(snake), sqlIdColumnName(snake));
+            templates.findById = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据多个主键查询语句
+     *
+     * @param size 主键个数
+     */
+    public String getFindByIdsSql(int size, boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.findByIds.get((long) size);
+        if (sql == null) {
+            sql = String.format("select %s from %s where %s", getInsertColumnsSqlSnippet(snake), sqlTableName(snake),
+                    getIdInSqlSnippet(size, snake));
+            cacheSql(templates.findByIds, size, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得判断主键是否存在的语句, 只查询主键列, 例如: select id from t where id = ?
+     */
+    public String getExistsByIdSql(boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.existsById;
+        if (sql == null) {
+            String idColumn = sqlIdColumnName(snake);
+            sql = String.format("select %s from %s where %s = ?", idColumn, sqlTableName(snake), idColumn);
+            templates.existsById = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * 获得查询已存在主键的语句, 只查询主键列, 例如: select id from t where id in (?, ?)
+     *
+     * @param size 主键个数
+     */
+    public String getFindIdsByIdsSql(int size, boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.findIdsByIds.get((long) size);
+        if (sql == null) {
+            sql = String.format("select %s from %s where %s", sqlIdColumnName(snake), sqlTableName(snake),
+                    getIdInSqlSnippet(size, snake));
+            cacheSql(templates.findIdsByIds, size, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得统计全部行数的语句
+     */
+    public String getCountSql(boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.count;
+        if (sql == null) {
+            sql = String.format("select count(*) from %s", sqlTableName(snake));
+            templates.count = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * 获得统计多个主键对应行数的语句, 例如: select count(*) from t where id in (?, ?)
+     *
+     * @param size 主键个数
+     */
+    public String getCountByIdsSql(int size, boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.countByIds.get((long) size);
+        if (sql == null) {
+            sql = String.format("select count(*) from %s where %s", sqlTableName(snake),
+                    getIdInSqlSnippet(size, snake));
+            cacheSql(templates.countByIds, size, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据主键查询部分列的语句, 例如: select id, name from t where id = ?
+     *
+     * @param fields 字段名或列名, 与实体列名不同时作为别名
+     */
+    public String getFindByIdSql(String[] fields, boolean snake) {
+        Projection projection = getProjection(fields, snake);
+        String sql = projection.findById;
+        if (sql == null) {
+            sql = String.format("select %s from %s where %s = ?", projection.columns, sqlTableName(snake),
+                    sqlIdColumnName(snake));
+            projection.findById = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据多个主键查询部分列的语句, 例如: select id, name from t where id in (?, ?)
+     *
+     * @param fields 字段名或列名, 与实体列名不同时作为别名
+     * @param size   主键个数
+     */
+    public String getFindByIdsSql(String[] fields, int size, boolean snake) {
+        Projection projection = getProjection(fields, snake);
+        String sql = projection.findByIds.get((long) size);
+        if (sql == null) {
+            sql = String.format("select %s from %s where %s", projection.columns, sqlTableName(snake),
+                    getIdInSqlSnippet(size, snake));
+            cacheSql(projection.findByIds, size, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得部分列的语句缓存, 按字段集合缓存
+     */
+    private Projection getProjection(String[] fields, boolean snake) {
+        InnerUtils.assertArgument(fields != null && fields.length > 0, "Projection fields must not be empty");
+        ConcurrentHashMap<List<String>, Projection> projections = getSqlTemplates(snake).projections;
+        Projection projection = projections.get(Arrays.asList(fields));
+        if (projection == null) {
+            List<String> columns = new ArrayList<>(fields.length);
+            for (String field : fields) {
+                FieldInfo fieldInfo = getFieldInfoByColumn(field, snake);
+                InnerUtils.assertArgument(fieldInfo != null && !fieldInfo.isTransients(),
+                        "Unable found column %s in class %s", field, classInfo.getClazz().getName());
+                String column = fieldInfo.getColumnName(snake);
+                columns.add(column.equalsIgnoreCase(field) ? quote(column) : quote(column) + " as " + quote(field));
+            }
+            projection = new Projection(InnerUtils.join(", ", columns));
+            if (projections.size() < MAX_SQL_CACHE_SIZE) {
+                Projection exist = projections.putIfAbsent(Arrays.asList(fields.clone()), projection);
+                projection = (exist != null) ? exist : projection;
+            }
+        }
+        return projection;
+    }
+
+    /**
+     * 获得按主键顺序分页查询语句, 例如: select id, name from t where id > ? order by id limit ?
+     *
+     * @param after 是否从指定主键之后开始查询, 为false时查询第一页
+     */
+    public String getFindPageSql(Dialect dialect, boolean after, boolean snake) {
+        SqlTemplates templates = getSqlTemplates(snake);
+        ConcurrentHashMap<Class<?>, String> cache = after ? templates.findPageAfter : templates.findPage;
+        String sql = cache.get(dialect.getClass());
+        if (sql == null) {
+            String idColumn = sqlIdColumnName(snake);
+            String where = after ? " where " + idColumn + " > ?" : "";
+            sql = dialect.getLimitSql(String.format("select %s from %s%s order by %s", getInsertColumnsSqlSnippet(snake),
+                    sqlTableName(snake), where, idColumn));
+            cacheSql(cache, dialect, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据多个主键查询语句, 主键绑定为单个数组参数, 例如: select id, name from t where id = any(?)
+     *
+     * @return 方言不支持该主键类型的数组绑定时返回null
+     */
+    public String getFindByIdsArraySql(Dialect dialect, boolean snake) {
+        if (!isIdArraySupported(dialect)) {
+            return null;
+        }
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.findByIdsArray.get(dialect.getClass());
+        if (sql == null) {
+            sql = String.format("select %s from %s where %s", getInsertColumnsSqlSnippet(snake), sqlTableName(snake),
+                    dialect.getInArraySql(sqlIdColumnName(snake)));
+            cacheSql(templates.findByIdsArray, dialect, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得查询已存在主键的语句, 主键绑定为单个数组参数, 例如: select id from t where id = any(?)
+     *
+     * @return 方言不支持该主键类型的数组绑定时返回null
+     */
+    public String getFindIdsByIdsArraySql(Dialect dialect, boolean snake) {
+        if (!isIdArraySupported(dialect)) {
+            return null;
+        }
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.findIdsByIdsArray.get(dialect.getClass());
+        if (sql == null) {
+            String idColumn = sqlIdColumnName(snake);
+            sql = String.format("select %s from %s where %s", idColumn, sqlTableName(snake),
+                    dialect.getInArraySql(idColumn));
+            cacheSql(templates.findIdsByIdsArray, dialect, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得统计多个主键对应行数的语句, 主键绑定为单个数组参数, 例如: select count(*) from t where id = any(?)
+     *
+     * @return 方言不支持该主键类型的数组绑定时返回null
+     */
+    public String getCountByIdsArraySql(Dialect dialect, boolean snake) {
+        if (!isIdArraySupported(dialect)) {
+            return null;
+        }
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.countByIdsArray.get(dialect.getClass());
+        if (sql == null) {
+            sql = String.format("select count(*) from %s where %s", sqlTableName(snake),
+                    dialect.getInArraySql(sqlIdColumnName(snake)));
+            cacheSql(templates.countByIdsArray, dialect, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得根据多个主键删除语句, 主键绑定为单个数组参数, 例如: delete from t where id = any(?)
+     *
+     * @return 方言不支持该主键类型的数组绑定时返回null
+     */
+    public String getDeleteByIdsArraySql(Dialect dialect, boolean snake) {
+        if (!isIdArraySupported(dialect)) {
+            return null;
+        }
+        SqlTemplates templates = getSqlTemplates(snake);
+        String sql = templates.deleteByIdsArray.get(dialect.getClass());
+        if (sql == null) {
+            sql = String.format("delete from %s where %s", sqlTableName(snake),
+                    dialect.getInArraySql(sqlIdColumnName(snake)));
+            cacheSql(templates.deleteByIdsArray, dialect, sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 获得主键数组参数的元素类型名称, 方言不支持时返回null
+     */
+    public String getIdArrayTypeName(Dialect dialect) {
+        checkIdInfo();
+        return dialect.getArrayTypeName(idFieldInfo.getColumnType());
+    }
+
+    /**
+     * 获得主键in条件代码段, 例如: id in (?, ?)
+     */
+    private String getIdInSqlSnippet(int size, boolean snake) {
+        return sqlIdColumnName(snake) + " in (" + InnerUtils.join(", ", InnerUtils.fillList("?", size)) + ")";
+    }
+
+    private boolean isIdArraySupported(Dialect dialect) {
+        return getIdArrayTypeName(dialect) != null && dialect.getInArraySql(getIdColumnName(true)) != null;
+    }
+
+    /**
+     * 获得null值字段掩码, 第i位表示第i个字段值为null.
+     *
+     * @return 字段数量超过64时返回{@link #NONE_MASK}, 表示不能使用掩码
+     */
+    public long getNullFieldsMask(T obj) {
+        return getNullFieldsMask(getFieldValues(obj));
+    }
+
+    /**
+     * 读取非基本类型字段的值, 第i个元素为第i个字段的值, 基本类型和@Transient字段不读取(为null).
+     * <p>
+     * 选择性插入/更新时只读取一次: 同一份值用于计算null值掩码、生成语句和绑定参数, 基本类型字段不会为null, 绑定时直接读取.
+     *
+     * @see #getNullFieldsMask(Object[])
+     */
+    public Object[] getFieldValues(T obj) {
+        List<FieldInfo> fields = this.fieldsInfo;
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            FieldInfo fieldInfo = fields.get(i);
+            if (!fieldInfo.isTransients() && !fieldInfo.isPrimitive()) {
+                values[i] = fieldInfo.get(obj);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 根据{@link #getFieldValues(Object)}的结果获得null值字段掩码, 不再读取字段
+     *
+     * @return 字段数量超过64时返回{@link #NONE_MASK}, 表示不能使用掩码
+     */
+    public long getNullFieldsMask(Object[] fieldValues) {
+        List<FieldInfo> fields = this.fieldsInfo;
+        if (fields.size() > Long.SIZE) {
+            return NONE_MASK;
+        }
+        long mask = 0L;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldInfo fieldInfo = fields.get(i);
+            if (fieldInfo.isTransients() || fieldInfo.isPrimitive()) {
+                continue;
+            }
+            if (fieldValues[i] == null) {
+                mask |= (1L << i);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 创建字段值快照, 用于之后判断哪些字段发生了变化; Date和byte[]复制一份, 其他值保存引用.
+     *
+     * @see #getChangedFieldsMask(Object, Object[])
+     */
+    public Object[] createSnapshot(T obj) {
+        List<FieldInfo> fields = this.fieldsInfo;
+        Object[] snapshot = new Object[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            Object value = fields.get(i).get(obj);
+            if (value instanceof Date) {
+                value = ((Date) value).clone();
+            } else if (value instanceof byte[]) {
+                value = ((byte[]) value).clone();
+            }
+            snapshot[i] = value;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 获得相对快照值发生变化的字段掩码, 第i位表示第i个字段, 不包括id和@Transient字段; 字段变为null也视为变化.
+     *
+     * @return 字段数量超过64时返回{@link #NONE_MASK}, 表示不能使用掩码
+     */
+    public long getChangedFieldsMask(T obj, Object[] snapshot) {
+        List<FieldInfo> fields = this.fieldsInfo;
+        if (fields.size() > Long.SIZE) {
+            return NONE_MASK;
+        }
+        long mask = 0L;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldInfo fieldInfo = fields.get(i);
+            if (fieldInfo.isTransients() || fieldInfo == idFieldInfo) {
+                continue;
+            }
+            if (!ObjectUtils.nullSafeEquals(fieldInfo.get(obj), snapshot[i])) {
+                mask |= (1L << i);
+            }
+        }
+        return mask;
+    }
+
+    private SqlTemplates getSqlTemplates(boolean snake) {
+        return snake ? snakeSqlTemplates : sqlTemplates;
+    }
+
+    private static void cacheSql(ConcurrentHashMap<Long, String> cache, long key, String sql) {
+        if (key != NONE_MASK && cache.size() < MAX_SQL_CACHE_SIZE) {
+            cache.putIfAbsent(key, sql);
+        }
+    }
+
+    private static void cacheSql(ConcurrentHashMap<Class<?>, String> cache, Dialect dialect, String sql) {
+        if (cache.size() < MAX_SQL_CACHE_SIZE) {
+            cache.putIfAbsent(dialect.getClass(), sql);
+        }
+    }
+
+    /**
+     * 创建该类型的一个实例，存在生成的元数据时直接调用构造函数, 否则通过反射调用无参构造函数
+     */
+    public T createEntityObject() {
+        EntityMetadata<T> metadata = this.metadata;
+        if (metadata != null) {
+            return metadata.newInstance();
+        }
+        return InnerUtils.createObject(getConstructor());
+    }
+
+    private Constructor<?> getConstructor() {
+        Constructor<?> constructor = this.constructor;
+        if (constructor == null) {
+            constructor = InnerUtils.getInstantiableConstructor(classInfo.getClazz());
+            this.constructor = constructor;
+        }
+        return constructor;
+    }
+
+    /**
+     * 预热, 生成常用SQL、列名到字段的映射并查找构造函数, 之后的首次调用不再解析; 可以重复调用.
+     * <p>
+     * 按null值字段生成的插入和更新语句取决于实体的值, 不预先生成.
+     *
+     * @param dialect       数据库方言, 为null时不生成方言相关的SQL
+     * @param maxInListSize 生成参数个数为2的幂且不超过该值的in语句
+     */
+    public void warmUp(Dialect dialect, int maxInListSize, boolean snake) {
+        initColumnIndex(snake);
+        if (metadata == null) {
+            getConstructor();
+        }
+        getCountSql(snake);
+        if (idFieldInfo == null) {
+            return;
+        }
+        getInsertSql(snake);
+        getFindByIdSql(snake);
+        getDeleteByIdSql(snake);
+        getExistsByIdSql(snake);
+        for (int size = 1; size <= maxInListSize; size <<= 1) {
+            getFindByIdsSql(size, snake);
+            getDeleteByIdsSql(size, snake);
+            getFindIdsByIdsSql(size, snake);
+            getCountByIdsSql(size, snake);
+        }
+        if (dialect != null) {
+            getUpsertSql(dialect, snake);
+            getFindPageSql(dialect, false, snake);
+            getFindPageSql(dialect, true, snake);
+            getFindByIdsArraySql(dialect, snake);
+            getDeleteByIdsArraySql(dialect, snake);
+            getFindIdsByIdsArraySql(dialect, snake);
+            getCountByIdsArraySql(dialect, snake);
+        }
+    }
+
+    /**
+     * 复制实体, 浅复制全部字段
+     */
+    public T copyEntity(T obj) {
+        T copy = createEntityObject();
+        List<FieldInfo> fields = this.fieldsInfo;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldInfo fieldInfo = fields.get(i);
+            fieldInfo.set(copy, fieldInfo.get(obj));
+        }
+        return copy;
+    }
+
+    //--------------------------------------------------------------------------
+    // 辅助函数
+    //--------------------------------------------------------------------------
+
+    /**
+     * 添加字段信息
+     */
+    private FieldInfo addField(Field field) {
+        FieldInfo fieldInfo = new FieldInfo(field);
         this.fieldsInfo.add(fieldInfo);
+        return fieldInfo;
     }
 
     //--------------------------------------------------------------------------
@@ -365,11 +1340,22 @@ public class EntityInfo<T> implements Serializable {
         private final String annotationTableName;
 
         public ClassInfo(Class<T> clazz) {
+            this(clazz, getAnnotationTableName(clazz));
+        }
+
+        /**
+         * @param annotationTableName @Table(name=)指定的表名, 没有时为null
+         */
+        public ClassInfo(Class<T> clazz, String annotationTableName) {
             this.clazz = clazz;
             this.className = clazz.getSimpleName();
             this.snakeClassName = InnerUtils.camelToSnake(this.className);
+            this.annotationTableName = annotationTableName;
+        }
+
+        private static String getAnnotationTableName(Class<?> clazz) {
             Table tableAnnotation = clazz.getAnnotation(Table.class);
-            this.annotationTableName = (tableAnnotation != null) ? tableAnnotation.name() : null;
+            return (tableAnnotation != null) ? tableAnnotation.name() : null;
         }
 
         /**
@@ -387,6 +1373,52 @@ public class EntityInfo<T> implements Serializable {
 
     }
 
+    /**
+     * 实体相关的SQL语句缓存
+     */
+    private static class SqlTemplates implements Serializable {
+
+        private volatile String insert;
+        private volatile String findById;
+        private volatile String deleteById;
+        private volatile String existsById;
+        private volatile String count;
+        private final ConcurrentHashMap<Long, String> insertSelective = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> insertValues = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> updateSelective = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> updateFields = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> findByIds = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> deleteByIds = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> findIdsByIds = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> countByIds = new ConcurrentHashMap<>();
+        // 方言相关的语句, 按方言类型缓存
+        private final ConcurrentHashMap<Class<?>, String> upsert = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Class<?>, String> findByIdsArray = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Class<?>, String> deleteByIdsArray = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Class<?>, String> findIdsByIdsArray = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Class<?>, String> countByIdsArray = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Class<?>, String> findPage = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<List<String>, Projection> projections = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Class<?>, String> findPageAfter = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 查询部分列的语句缓存
+     */
+    private static class Projection implements Serializable {
+
+        /**
+         * 查询列代码段, 例如: id, name
+         */
+        private final String columns;
+        private volatile String findById;
+        private final ConcurrentHashMap<Long, String> findByIds = new ConcurrentHashMap<>();
+
+        Projection(String columns) {
+            this.columns = columns;
+        }
+    }
+
     /**
      * 反射获取字段信息，内部不会缓存
      *
@@ -395,16 +1427,29 @@ public class EntityInfo<T> implements Serializable {
     @Getter
     public static class FieldInfo implements Serializable {
 
+        /**
+         * 默认字段访问器创建策略
+         */
+        private static volatile FieldAccessor.Factory defaultAccessorFactory = ReflectionFieldAccessor.FACTORY;
+
         private final Field field;
         private final Class<?> type;
         private final String fieldName;
         private final String snakeFieldName;
         private final String annotationColumnName;
         private final boolean transients;
+        private final boolean primitive;
+        private final ColumnType columnType;
+        private final transient FieldAccessor accessor;
 
         public FieldInfo(Field field) {
+            this(field, defaultAccessorFactory);
+        }
+
+        public FieldInfo(Field field, FieldAccessor.Factory accessorFactory) {
             this.field = field;
             field.setAccessible(true);
+            this.accessor = accessorFactory.create(field);
             this.type = field.getType();
             this.fieldName = field.getName();
             this.snakeFieldName = InnerUtils.camelToSnake(this.fieldName);
@@ -412,6 +1457,42 @@ public class EntityInfo<T> implements Serializable {
             this.annotationColumnName = (annotation != null) ? annotation.name() : null;
             Transient transientAno = field.getAnnotation(Transient.class);
             this.transients = (transientAno != null);
+            this.primitive = this.type.isPrimitive();
+            this.columnType = ColumnType.of(this.type);
+        }
+
+        /**
+         * 不依赖反射创建, 用于编译期生成的元数据, 此时{@link #getField()}为null
+         *
+         * @param annotationColumnName @Column(name=)指定的列名, 没有时为null
+         * @param transients           是否有@Transient注解
+         */
+        public FieldInfo(String fieldName, Class<?> type, String annotationColumnName, boolean transients,
+                FieldAccessor accessor) {
+            this.field = null;
+            this.accessor = accessor;
+            this.type = type;
+            this.fieldName = fieldName;
+            this.snakeFieldName = InnerUtils.camelToSnake(fieldName);
+            this.annotationColumnName = annotationColumnName;
+            this.transients = transients;
+            this.primitive = type.isPrimitive();
+            this.columnType = ColumnType.of(type);
+        }
+
+        public static FieldAccessor.Factory getDefaultAccessorFactory() {
+            return defaultAccessorFactory;
+        }
+
+        /**
+         * 设置默认字段访问器创建策略, 仅对之后解析的实体生效, 应在应用启动时设置.
+         *
+         * @see ReflectionFieldAccessor#FACTORY
+         * @see MethodHandleFieldAccessor#FACTORY
+         */
+        public static void setDefaultAccessorFactory(FieldAccessor.Factory accessorFactory) {
+            InnerUtils.assertArgument(accessorFactory != null, "Accessor factory must not be null");
+            defaultAccessorFactory = accessorFactory;
         }
 
         /**
@@ -428,22 +1509,98 @@ public class EntityInfo<T> implements Serializable {
          * 获取对象中特定字段值
          */
         public Object get(Object obj) {
-            try {
-                return this.field.get(obj);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException("Never happen!", e);
-            }
+            return accessor.get(obj);
         }
 
         /**
          * 设置对象中特定字段值
          */
         public void set(Object obj, Object value) {
-            try {
-                field.set(obj, value);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException("Never happen!", e);
+            accessor.set(obj, value);
+        }
+
+        /**
+         * 绑定对象中该字段值到PreparedStatement
+         *
+         * @param selective 值为null时不绑定
+         * @return 是否绑定了参数
+         */
+        public boolean setParameter(PreparedStatement ps, int index, Object obj, boolean selective)
+                throws SQLException {
+            if (primitive) {
+                columnType.setPrimitiveValue(ps, index, this, obj);
+                return true;
             }
+            Object value = get(obj);
+            if (value == null) {
+                if (selective) {
+                    return false;
+                }
+                columnType.setNull(ps, index);
+            } else {
+                columnType.setValue(ps, index, value);
+            }
+            return true;
+        }
+
+        //----------------------------------------------------------------------
+        // 基本类型字段读写, 不产生装箱对象
+        //----------------------------------------------------------------------
+
+        public boolean getBoolean(Object obj) {
+            return accessor.getBoolean(obj);
+        }
+
+        public void setBoolean(Object obj, boolean value) {
+            accessor.setBoolean(obj, value);
+        }
+
+        public byte getByte(Object obj) {
+            return accessor.getByte(obj);
+        }
+
+        public void setByte(Object obj, byte value) {
+            accessor.setByte(obj, value);
+        }
+
+        public short getShort(Object obj) {
+            return accessor.getShort(obj);
+        }
+
+        public void setShort(Object obj, short value) {
+            accessor.setShort(obj, value);
+        }
+
+        public int getInt(Object obj) {
+            return accessor.getInt(obj);
+        }
+
+        public void setInt(Object obj, int value) {
+            accessor.setInt(obj, value);
+        }
+
+        public long getLong(Object obj) {
+            return accessor.getLong(obj);
+        }
+
+        public void setLong(Object obj, long value) {
+            accessor.setLong(obj, value);
+        }
+
+        public float getFloat(Object obj) {
+            return accessor.getFloat(obj);
+        }
+
+        public void setFloat(Object obj, float value) {
+            accessor.setFloat(obj, value);
+        }
+
+        public double getDouble(Object obj) {
+            return accessor.getDouble(obj);
+        }
+
+        public void setDouble(Object obj, double value) {
+            accessor.setDouble(obj, value);
         }
     }
 }
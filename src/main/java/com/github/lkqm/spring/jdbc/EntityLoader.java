@@ -0,0 +1,166 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * 合并并发的按主键查询, 在一个时间窗口内或达到最大批量时合并为一次{@link JdbcTemplatePlus#findByIds}.
+ * <p>
+ * 第一个加入批次的线程负责等待窗口结束并执行查询, 其他线程等待各自的结果; 只能加入尚未开始执行的批次,
+ * 同一批次中相同主键只查询一次, 除第一个调用方外其他调用方得到实体的副本.
+ * <p>
+ * 查询使用执行线程的连接, 因此处于事务中的调用不合并, 直接在当前事务中查询.
+ *
+ * @thread 线程安全的.
+ * @see BaseServiceImpl#enableLoader(int, long, TimeUnit)
+ */
+public class EntityLoader<ID, T> {
+
+    private final JdbcTemplatePlus jdbcTemplate;
+    private final Class<T> entityClass;
+    private final EntityInfo<T> entityInfo;
+    private final int maxBatchSize;
+    private final long windowNanos;
+
+    private final Object lock = new Object();
+    /**
+     * 正在收集的批次
+     */
+    private Batch<ID, T> current;
+
+    /**
+     * @param maxBatchSize 每批最大主键个数
+     * @param window       收集主键的时间窗口
+     */
+    public EntityLoader(JdbcTemplatePlus jdbcTemplate, Class<T> entityClass, int maxBatchSize, long window,
+            TimeUnit unit) {
+        InnerUtils.assertArgument(maxBatchSize > 0, "Max batch size must be positive");
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityClass = entityClass;
+        this.entityInfo = EntityInfo.newInstance(entityClass);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    /**
+     * 根据主键查询, 与其他线程的查询合并执行
+     *
+     * @return 不存在时返回null
+     */
+    public T load(ID id) {
+        InnerUtils.assertArgument(id != null, "Id must not be null");
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            List<T> results = jdbcTemplate.findByIds(Collections.singletonList(id), entityClass);
+            return results.isEmpty() ? null : results.get(0);
+        }
+        SettableListenableFuture<T> future;
+        Batch<ID, T> leading = null;
+        boolean shared = false;
+        synchronized (lock) {
+            if (current == null) {
+                current = new Batch<>();
+                leading = current;
+            }
+            future = current.futures.get(id);
+            if (future != null) {
+                shared = true;
+            } else {
+                future = new SettableListenableFuture<>();
+                current.futures.put(id, future);
+                if (current.futures.size() >= maxBatchSize) {
+                    current = null;
+                    lock.notifyAll();
+                }
+            }
+        }
+        if (leading != null) {
+            awaitWindow(leading);
+            execute(leading);
+        }
+        T entity = getResult(future);
+        return (shared && entity != null) ? entityInfo.copyEntity(entity) : entity;
+    }
+
+    /**
+     * 等待时间窗口结束或者批次已满
+     */
+    private void awaitWindow(Batch<ID, T> batch) {
+        boolean interrupted = false;
+        synchronized (lock) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            while (current == batch && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    break;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+            if (current == batch) {
+                current = null;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(Batch<ID, T> batch) {
+        try {
+            List<ID> ids = new ArrayList<>(batch.futures.keySet());
+            Map<Object, T> found = new HashMap<>();
+            for (T entity : jdbcTemplate.findByIds(ids, entityClass)) {
+                found.put(entityInfo.getIdValue(entity), entity);
+            }
+            for (Map.Entry<ID, SettableListenableFuture<T>> entry : batch.futures.entrySet()) {
+                entry.getValue().set(found.get(entry.getKey()));
+            }
+        } catch (RuntimeException | Error e) {
+            for (SettableListenableFuture<T> future : batch.futures.values()) {
+                future.setException(e);
+            }
+        }
+    }
+
+    private T getResult(SettableListenableFuture<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    // 结果由其他线程完成, 等待完成后恢复中断状态
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RecoverableDataAccessException("Batch load failed", cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class Batch<ID, T> {
+
+        private final Map<ID, SettableListenableFuture<T>> futures = new LinkedHashMap<>();
+    }
+}
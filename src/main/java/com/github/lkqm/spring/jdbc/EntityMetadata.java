@@ -0,0 +1,37 @@
+package com.github.lkqm.spring.jdbc;
+
+import com.github.lkqm.spring.jdbc.EntityInfo.FieldInfo;
+import java.util.List;
+
+/**
+ * 编译期生成的实体元数据, 替代反射读取字段、注解和调用构造函数.
+ * <p>
+ * 实现类由{@link EntityMetadataProcessor}生成, 与实体类在同一个包下, 类名为实体类名加{@link EntityInfo#METADATA_CLASS_SUFFIX},
+ * 必须有公开的无参构造函数; {@link EntityInfo#newInstance(Class)}存在该类时自动使用, 否则回退到反射.
+ *
+ * @param <T> 实体类型
+ */
+public interface EntityMetadata<T> {
+
+    Class<T> getEntityClass();
+
+    /**
+     * 获得@Table(name=)指定的表名, 没有时为null
+     */
+    String getTableName();
+
+    /**
+     * 获得主键字段名, 即@Id注解或名为id的字段, 没有时为null
+     */
+    String getIdFieldName();
+
+    /**
+     * 创建字段信息, 顺序与字段声明顺序一致
+     */
+    List<FieldInfo> createFields();
+
+    /**
+     * 通过无参构造函数创建实例
+     */
+    T newInstance();
+}
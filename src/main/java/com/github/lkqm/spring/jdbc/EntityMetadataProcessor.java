@@ -0,0 +1,297 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * 编译期生成实体元数据的注解处理器, 为带有@Table或@Entity注解的类生成{@link EntityMetadata}实现,
+ * 运行时{@link EntityInfo#newInstance(Class)}自动使用生成的类, 不再反射读取字段、注解和调用构造函数.
+ * <p>
+ * 生成的字段访问器优先直接读写非private字段, 其次调用getter/setter, 都不可用时回退到{@link ReflectionFieldAccessor};
+ * 行映射和参数绑定通过这些访问器读写字段, 基本类型字段不产生装箱对象.
+ * <p>
+ * 处理器是可选的, 未通过META-INF/services注册, 需要在编译参数中指定:
+ * <pre>
+ * javac -processor com.github.lkqm.spring.jdbc.EntityMetadataProcessor ...
+ * </pre>
+ * 类必须能在同一个包中访问并有非private的无参构造函数, 否则跳过生成, 运行时使用反射.
+ */
+public class EntityMetadataProcessor extends AbstractProcessor {
+
+    private static final String FIELD_INFO = EntityInfo.FieldInfo.class.getCanonicalName();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> types = new LinkedHashSet<>();
+        types.add(Table.class.getName());
+        types.add(Entity.class.getName());
+        return types;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> entities = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    entities.add((TypeElement) element);
+                }
+            }
+        }
+        for (TypeElement entity : entities) {
+            if (isSupported(entity)) {
+                generate(entity);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断生成的类能否直接访问并创建实体
+     */
+    private boolean isSupported(TypeElement entity) {
+        if (entity.getModifiers().contains(Modifier.ABSTRACT)) {
+            return note(entity, "abstract class");
+        }
+        for (Element e = entity; e.getKind() == ElementKind.CLASS; e = e.getEnclosingElement()) {
+            TypeElement type = (TypeElement) e;
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                return note(entity, "private class");
+            }
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                return note(entity, "non-static inner class");
+            }
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                return note(entity, "local class");
+            }
+        }
+        for (Element e : entity.getEnclosedElements()) {
+            if (e.getKind() == ElementKind.CONSTRUCTOR && ((ExecutableElement) e).getParameters().isEmpty()
+                    && !e.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return note(entity, "no accessible no-arg constructor");
+    }
+
+    private boolean note(TypeElement entity, String reason) {
+        processingEnv.getMessager().printMessage(Kind.NOTE,
+                "Skip generating entity metadata, fallback to reflection: " + reason, entity);
+        return false;
+    }
+
+    private void generate(TypeElement entity) {
+        List<VariableElement> fields = new ArrayList<>();
+        VariableElement idField = null;
+        VariableElement namedIdField = null;
+        for (Element e : entity.getEnclosedElements()) {
+            if (e.getKind() != ElementKind.FIELD || e.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            VariableElement field = (VariableElement) e;
+            fields.add(field);
+            if (field.getAnnotation(Id.class) != null) {
+                if (idField != null) {
+                    processingEnv.getMessager().printMessage(Kind.ERROR, "Found multiple @Id in class", field);
+                    return;
+                }
+                idField = field;
+            }
+            if ("id".equals(field.getSimpleName().toString())) {
+                namedIdField = field;
+            }
+        }
+        if (idField == null) {
+            idField = namedIdField;
+        }
+
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(entity);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + EntityInfo.METADATA_CLASS_SUFFIX;
+        String entityName = erasure(entity.asType());
+
+        StringBuilder sb = new StringBuilder(1024);
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("/**\n * Generated by ").append(EntityMetadataProcessor.class.getName())
+                .append(", do not edit.\n */\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(simpleName).append(" implements ")
+                .append(EntityMetadata.class.getName()).append('<').append(entityName).append("> {\n\n");
+
+        sb.append("    @Override\n    public Class<").append(entityName).append("> getEntityClass() {\n")
+                .append("        return ").append(entityName).append(".class;\n    }\n\n");
+
+        Table table = entity.getAnnotation(Table.class);
+        sb.append("    @Override\n    public String getTableName() {\n        return ")
+                .append(literal(table != null ? table.name() : null)).append(";\n    }\n\n");
+
+        sb.append("    @Override\n    public String getIdFieldName() {\n        return ")
+                .append(literal(idField != null ? idField.getSimpleName().toString() : null)).append(";\n    }\n\n");
+
+        sb.append("    @Override\n    public java.util.List<").append(FIELD_INFO).append("> createFields() {\n");
+        sb.append("        java.util.List<").append(FIELD_INFO).append("> fields = new java.util.ArrayList<")
+                .append(FIELD_INFO).append(">(").append(fields.size()).append(");\n");
+        for (VariableElement field : fields) {
+            appendField(sb, entity, entityName, field);
+        }
+        sb.append("        return fields;\n    }\n\n");
+
+        sb.append("    @Override\n    public ").append(entityName).append(" newInstance() {\n")
+                .append("        return new ").append(entityName).append("();\n    }\n}\n");
+
+        try {
+            String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+            Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, entity).openWriter();
+            try {
+                writer.write(sb.toString());
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Unable write entity metadata: " + e, entity);
+        }
+    }
+
+    private void appendField(StringBuilder sb, TypeElement entity, String entityName, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        TypeMirror type = field.asType();
+        String typeName = erasure(type);
+        Column column = field.getAnnotation(Column.class);
+        boolean transients = field.getAnnotation(Transient.class) != null;
+
+        sb.append("        fields.add(new ").append(FIELD_INFO).append('(').append(literal(name)).append(", ")
+                .append(typeName).append(".class, ").append(literal(column != null ? column.name() : null))
+                .append(", ").append(transients).append(", ");
+
+        String getter = null;
+        String setter = null;
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            getter = "." + name;
+            if (!field.getModifiers().contains(Modifier.FINAL)) {
+                setter = "." + name + " = %s";
+            }
+        }
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        if (getter == null) {
+            String prefix = (type.getKind() == TypeKind.BOOLEAN) ? "is" : "get";
+            if (hasMethod(entity, prefix + capitalized, null, type)) {
+                getter = "." + prefix + capitalized + "()";
+            }
+        }
+        if (setter == null && hasMethod(entity, "set" + capitalized, type, null)) {
+            setter = ".set" + capitalized + "(%s)";
+        }
+        if (getter == null || setter == null) {
+            sb.append(ReflectionFieldAccessor.class.getName()).append(".of(").append(entityName).append(".class, ")
+                    .append(literal(name)).append(")));\n");
+            return;
+        }
+
+        String target = "((" + entityName + ") obj)";
+        sb.append("new ").append(AbstractFieldAccessor.class.getName()).append("() {\n");
+        sb.append("            @Override\n            public Object get(Object obj) {\n")
+                .append("                return ").append(target).append(getter).append(";\n            }\n\n");
+        String boxedName = type.getKind().isPrimitive()
+                ? erasure(processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType())
+                : typeName;
+        sb.append("            @Override\n            public void set(Object obj, Object value) {\n")
+                .append("                ").append(target)
+                .append(String.format(setter, "(" + boxedName + ") value")).append(";\n            }\n");
+        if (isAccessorPrimitive(type.getKind())) {
+            String method = type.getKind().name().charAt(0)
+                    + type.getKind().name().substring(1).toLowerCase(Locale.ENGLISH);
+            sb.append("\n            @Override\n            public ").append(typeName).append(" get").append(method)
+                    .append("(Object obj) {\n                return ").append(target).append(getter)
+                    .append(";\n            }\n\n");
+            sb.append("            @Override\n            public void set").append(method).append("(Object obj, ")
+                    .append(typeName).append(" value) {\n                ").append(target)
+                    .append(String.format(setter, "value")).append(";\n            }\n");
+        }
+        sb.append("        }));\n");
+    }
+
+    /**
+     * 是否为{@link FieldAccessor}提供了基本类型读写方法的类型
+     */
+    private static boolean isAccessorPrimitive(TypeKind kind) {
+        return kind.isPrimitive() && kind != TypeKind.CHAR;
+    }
+
+    /**
+     * 判断是否存在非private的实例方法, 参数类型或返回类型与字段类型一致
+     */
+    private boolean hasMethod(TypeElement entity, String name, TypeMirror parameterType, TypeMirror returnType) {
+        for (Element e : entity.getEnclosedElements()) {
+            if (e.getKind() != ElementKind.METHOD || !e.getSimpleName().contentEquals(name)
+                    || e.getModifiers().contains(Modifier.PRIVATE) || e.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) e;
+            if (parameterType != null && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), parameterType)) {
+                return true;
+            }
+            if (returnType != null && method.getParameters().isEmpty()
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), returnType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static String literal(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -1,16 +1,20 @@
 package com.github.lkqm.spring.jdbc;
 
+import com.github.lkqm.spring.jdbc.EntityInfo.FieldInfo;
+import java.lang.ref.WeakReference;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Getter;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
 
 /**
  * 通过反射获得对应POJO对象
  *
- * 注：反射对象类型必须拥有一个默认构造函数
+ * 注：反射对象类型必须拥有一个默认构造函数; 映射计划按结果的列名缓存, 相同列的ResultSet只解析一次列信息,
+ * 之后按列下标读取, 结果中不存在的字段保持默认值. 多个线程共享同一个实例时各自的ResultSet也复用缓存的映射计划.
  * @param <T>
  */
 @Getter
@@ -18,37 +22,139 @@ public class EntityRowMapper<T> implements RowMapper<T> {
 
     private final EntityInfo<T> entityInfo;
     private final boolean snake;
+    /**
+     * 脏检查, 不为null时记录映射得到的实体的快照
+     */
+    private final DirtyTracker dirtyTracker;
+
+    /**
+     * 按列名缓存的映射计划的最大数量
+     */
+    private static final int MAX_PLAN_CACHE_SIZE = 256;
+
+    /**
+     * 按全部列名缓存的映射计划
+     */
+    private final ConcurrentHashMap<String, MappingPlan> mappingPlans = new ConcurrentHashMap<>();
+
+    /**
+     * 最近一个ResultSet及其映射计划, 同一个ResultSet连续映射时不再读取ResultSetMetaData
+     */
+    private volatile ResultSetPlan lastPlan;
 
     public EntityRowMapper(EntityInfo<T> entityInfo, boolean snake) {
+        this(entityInfo, snake, null);
+    }
+
+    public EntityRowMapper(EntityInfo<T> entityInfo, boolean snake, DirtyTracker dirtyTracker) {
         this.entityInfo = entityInfo;
         this.snake = snake;
+        this.dirtyTracker = dirtyTracker;
     }
 
     public EntityRowMapper(Class<T> entityClass, boolean snake) {
-        this.entityInfo = EntityInfo.newInstance(entityClass);
-        this.snake = snake;
+        this(EntityInfo.newInstance(entityClass), snake, null);
     }
 
 
     @Override
     public T mapRow(ResultSet rs, int i) throws SQLException {
-        List<EntityInfo.FieldInfo> fields = entityInfo.getFieldsInfo();
+        MappingPlan plan = getMappingPlan(rs);
         T entity = entityInfo.createEntityObject();
 
-        for (EntityInfo.FieldInfo field : fields) {
-            String column = field.getColumnName(snake);
-            Class<?> type = convertType(field.getType());
-            Object value = rs.getObject(column, type);
-            field.set(entity, value);
+        FieldInfo[] fields = plan.fields;
+        ColumnType[] columnTypes = plan.columnTypes;
+        for (int k = 0; k < fields.length; k++) {
+            columnTypes[k].readValue(rs, plan.columnIndexes[k], fields[k], entity);
+        }
+        if (dirtyTracker != null) {
+            dirtyTracker.snapshot(entityInfo, entity);
         }
         return entity;
     }
 
-    private Class<?> convertType(Class<?> originType) {
-        Class<?> type = originType;
-        if(type == java.util.Date.class) {
-            type = Timestamp.class;
+    /**
+     * 获得ResultSet对应的映射计划; 最近的ResultSet直接复用, 其他ResultSet(例如多个线程交替映射)按列名查找缓存,
+     * 只读取列名而不再解析字段
+     */
+    private MappingPlan getMappingPlan(ResultSet rs) throws SQLException {
+        ResultSetPlan last = this.lastPlan;
+        if (last != null && last.resultSet.get() == rs) {
+            return last.plan;
+        }
+        ResultSetMetaData metaData = rs.getMetaData();
+        String[] columns = new String[metaData.getColumnCount()];
+        StringBuilder key = new StringBuilder();
+        for (int index = 1; index <= columns.length; index++) {
+            columns[index - 1] = JdbcUtils.lookupColumnName(metaData, index);
+            key.append(columns[index - 1]).append('\0');
+        }
+        MappingPlan plan = mappingPlans.get(key.toString());
+        if (plan == null) {
+            plan = new MappingPlan(columns, entityInfo, snake);
+            if (mappingPlans.size() < MAX_PLAN_CACHE_SIZE) {
+                mappingPlans.putIfAbsent(key.toString(), plan);
+            }
+        }
+        this.lastPlan = new ResultSetPlan(rs, plan);
+        return plan;
+    }
+
+    /**
+     * ResultSet与其映射计划
+     */
+    private static class ResultSetPlan {
+
+        private final WeakReference<ResultSet> resultSet;
+        private final MappingPlan plan;
+
+        ResultSetPlan(ResultSet rs, MappingPlan plan) {
+            this.resultSet = new WeakReference<>(rs);
+            this.plan = plan;
+        }
+    }
+
+    /**
+     * 列下标到字段及其读取方式的映射, 忽略结果中不存在的字段
+     */
+    private static class MappingPlan {
+
+        private final int[] columnIndexes;
+        private final FieldInfo[] fields;
+        private final ColumnType[] columnTypes;
+
+        MappingPlan(String[] columns, EntityInfo<?> entityInfo, boolean snake) {
+            int columnCount = columns.length;
+            int[] columnIndexes = new int[columnCount];
+            FieldInfo[] fields = new FieldInfo[columnCount];
+            int size = 0;
+            for (int index = 1; index <= columnCount; index++) {
+                FieldInfo fieldInfo = entityInfo.getFieldInfoByColumn(columns[index - 1], snake);
+                if (fieldInfo == null || contains(fields, size, fieldInfo)) {
+                    continue;
+                }
+                columnIndexes[size] = index;
+                fields[size] = fieldInfo;
+                size++;
+            }
+
+            this.columnIndexes = new int[size];
+            this.fields = new FieldInfo[size];
+            this.columnTypes = new ColumnType[size];
+            for (int k = 0; k < size; k++) {
+                this.columnIndexes[k] = columnIndexes[k];
+                this.fields[k] = fields[k];
+                this.columnTypes[k] = fields[k].getColumnType();
+            }
+        }
+
+        private static boolean contains(FieldInfo[] fields, int size, FieldInfo fieldInfo) {
+            for (int i = 0; i < size; i++) {
+                if (fields[i] == fieldInfo) {
+                    return true;
+                }
+            }
+            return false;
         }
-        return type;
     }
-};
\ No newline at end of file
+}
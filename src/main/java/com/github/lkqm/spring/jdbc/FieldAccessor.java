@@ -0,0 +1,57 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.lang.reflect.Field;
+
+/**
+ * 字段访问器, 读写对象中特定字段的值.
+ * <p>
+ * 基本类型的getXxx/setXxx方法仅用于对应基本类型的字段, 避免装箱.
+ *
+ * @see ReflectionFieldAccessor 反射实现(默认)
+ * @see MethodHandleFieldAccessor MethodHandle实现
+ */
+public interface FieldAccessor {
+
+    Object get(Object obj);
+
+    void set(Object obj, Object value);
+
+    boolean getBoolean(Object obj);
+
+    void setBoolean(Object obj, boolean value);
+
+    byte getByte(Object obj);
+
+    void setByte(Object obj, byte value);
+
+    short getShort(Object obj);
+
+    void setShort(Object obj, short value);
+
+    int getInt(Object obj);
+
+    void setInt(Object obj, int value);
+
+    long getLong(Object obj);
+
+    void setLong(Object obj, long value);
+
+    float getFloat(Object obj);
+
+    void setFloat(Object obj, float value);
+
+    double getDouble(Object obj);
+
+    void setDouble(Object obj, double value);
+
+    /**
+     * 字段访问器创建策略
+     */
+    interface Factory {
+
+        /**
+         * 创建字段访问器, 字段已设置为可访问
+         */
+        FieldAccessor create(Field field);
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * H2方言.
+ */
+public class H2Dialect extends StandardDialect {
+
+    public static final H2Dialect INSTANCE = new H2Dialect();
+
+    @Override
+    public boolean supports(DatabaseMetaData metaData) throws SQLException {
+        return isProduct(metaData, "H2");
+    }
+
+    /**
+     * 例如: select * from t limit ?
+     */
+    @Override
+    public String getLimitSql(String sql) {
+        return sql + " limit ?";
+    }
+
+    /**
+     * 参数数量没有固定限制, 使用与PostgreSQL相同的值
+     */
+    @Override
+    public int getMaxBindParameters() {
+        return 32767;
+    }
+
+    /**
+     * 行数只受参数数量限制
+     */
+    @Override
+    public int getMaxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * 例如: merge into t(id, name) key(id) values(?, ?)
+     */
+    @Override
+    public String getUpsertSql(String table, String idColumn, List<String> columns) {
+        return String.format("merge into %s(%s) key(%s) values(%s)", table, InnerUtils.join(", ", columns), idColumn,
+                InnerUtils.join(", ", InnerUtils.fillList("?", columns.size())));
+    }
+}
@@ -1,11 +1,25 @@
 package com.github.lkqm.spring.jdbc;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
 
 public class InnerUtils {
 
@@ -67,6 +81,36 @@ public class InnerUtils {
         return results;
     }
 
+    /**
+     * 按固定大小拆分集合
+     */
+    public static <T> List<List<T>> partition(Collection<T> elements, int size) {
+        List<T> list = (elements instanceof List) ? (List<T>) elements : new ArrayList<>(elements);
+        List<List<T>> results = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size) {
+            results.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return results;
+    }
+
+    /**
+     * 填充in列表参数个数到2的幂, 重复最后一个元素; 使不同数量的参数共用少量SQL语句
+     */
+    public static Object[] padInArgs(Collection<?> elements) {
+        Object[] args = elements.toArray();
+        int size = args.length;
+        if (size <= 1) {
+            return args;
+        }
+        int bucket = Integer.highestOneBit(size - 1) << 1;
+        if (bucket == size) {
+            return args;
+        }
+        Object[] padded = Arrays.copyOf(args, bucket);
+        Arrays.fill(padded, size, bucket, args[size - 1]);
+        return padded;
+    }
+
     /**
      * 是否是常规的字段
      */
@@ -81,10 +125,42 @@ public class InnerUtils {
         return true;
     }
 
+    /**
+     * 扫描包(包括子包)下带有@Table或@Entity注解的类, 读取class文件判断注解, 不加载不匹配的类
+     */
+    public static Set<Class<?>> scanEntityClasses(ClassLoader classLoader, String... basePackages) {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        MetadataReaderFactory readerFactory = new CachingMetadataReaderFactory(resolver);
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (String basePackage : basePackages) {
+            String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX
+                    + ClassUtils.convertClassNameToResourcePath(basePackage) + "/**/*.class";
+            try {
+                for (Resource resource : resolver.getResources(pattern)) {
+                    AnnotationMetadata metadata = readerFactory.getMetadataReader(resource).getAnnotationMetadata();
+                    if (metadata.isConcrete() && (metadata.hasAnnotation(Table.class.getName())
+                            || metadata.hasAnnotation(Entity.class.getName()))) {
+                        classes.add(ClassUtils.forName(metadata.getClassName(), classLoader));
+                    }
+                }
+            } catch (IOException | ClassNotFoundException e) {
+                throw new IllegalStateException("Failed to scan entity classes in package: " + basePackage, e);
+            }
+        }
+        return classes;
+    }
+
     /**
      * 创建实例
      */
     public static <T> T createObject(Class<T> clazz) {
+        return createObject(getInstantiableConstructor(clazz));
+    }
+
+    /**
+     * 获得用于创建实例的构造函数, 优先使用无参构造函数
+     */
+    public static Constructor<?> getInstantiableConstructor(Class<?> clazz) {
         Constructor<?> constructor = null;
         Constructor<?>[] constructors = clazz.getConstructors();
         for (Constructor one : constructors) {
@@ -96,14 +172,17 @@ public class InnerUtils {
         if (constructor == null) {
             constructor = constructors[0];
         }
-        return createObject(constructor);
+        constructor.setAccessible(true);
+        return constructor;
     }
 
-    private static <T> T createObject(Constructor<?> constructor) {
+    /**
+     * 通过构造函数创建实例, 参数为各参数类型的默认值
+     */
+    public static <T> T createObject(Constructor<?> constructor) {
         Class<?>[] parameterTypes = constructor.getParameterTypes();
         Object[] args = getTypeDefaultValues(parameterTypes);
         try {
-            constructor.setAccessible(true);
             return (T) constructor.newInstance(args);
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
             throw new IllegalStateException(e);
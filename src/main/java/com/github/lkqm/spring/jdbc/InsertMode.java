@@ -0,0 +1,21 @@
+package com.github.lkqm.spring.jdbc;
+
+/**
+ * 批量插入方式.
+ *
+ * @see JdbcTemplatePlus#insertAll(java.util.Collection, InsertMode)
+ */
+public enum InsertMode {
+
+    /**
+     * JDBC批处理, 按非null列分组后通过addBatch/executeBatch执行
+     */
+    BATCH,
+
+    /**
+     * 多行values插入, 例如: insert into t(id, name) values(?, ?), (?, ?)
+     * <p>
+     * 使用全部列保证每行结构一致, 按绑定参数数量和数据包大小自动分段.
+     */
+    MULTI_VALUES
+}
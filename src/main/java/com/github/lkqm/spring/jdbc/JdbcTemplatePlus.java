@@ -3,32 +3,142 @@ package com.github.lkqm.spring.jdbc;
 import com.github.lkqm.spring.jdbc.EntityInfo.FieldInfo;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
 import org.springframework.dao.TypeMismatchDataAccessException;
 import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
 
 /**
  * 基于JdbcTemplate工具增加CRUD操作.
  *
  * @see #insert(Object)
+ * @see #insertAll(Collection)
  * @see #deleteById(Object, Class)
  * @see #deleteByIds(Collection, Class)
  * @see #findById(Object, Class)
  * @see #findByIds(Collection, Class)
+ * @see #findById(Object, Class, String...)
+ * @see #findById(Object, Class, Class)
  * @see #updateById(Object)
+ * @see #updateAllById(Collection)
+ * @see #upsert(Object)
+ * @see #upsertAll(Collection)
+ * @see #existsById(Object, Class)
+ * @see #existsByIds(Collection, Class)
+ * @see #count(Class)
+ * @see #countByIds(Collection, Class)
+ * @see #findPageAfter(Object, int, Class)
+ * @see #slices(int, Class)
+ * @see #iterate(String, Class, Object...)
+ * @see #forEach(String, Class, EntityCallback, Object...)
+ * @see #addOperationListener(OperationListener)
+ * @see #enableSlowOperationLog(long, TimeUnit)
+ * @see #warmUp(Collection)
+ * @see #setDirtyTracker(DirtyTracker)
  */
 public class JdbcTemplatePlus extends JdbcTemplate {
 
+    private static final OperationListener[] NO_LISTENERS = new OperationListener[0];
+
+    /**
+     * 批量操作时每批最大条数
+     */
+    @Getter
+    @Setter
+    private int batchSize = 1000;
+
+    /**
+     * 批量插入方式
+     */
+    @Getter
+    @Setter
+    private InsertMode insertMode = InsertMode.BATCH;
+
+    /**
+     * 单条语句最大绑定参数数量, 多行插入时据此分段; 为null时使用方言的限制
+     *
+     * @see Dialect#getMaxBindParameters()
+     */
+    private Integer maxBindParameters;
+
+    /**
+     * 多行插入单条语句最大行数, 为null时使用方言的限制
+     *
+     * @see Dialect#getMaxInsertRows()
+     */
+    private Integer maxInsertRows;
+
+    /**
+     * 单条语句最大字节数(估算值), 多行插入时据此分段, 不应超过MySQL的max_allowed_packet
+     */
+    @Getter
+    @Setter
+    private int maxPacketSize = 4 * 1024 * 1024;
+
+    /**
+     * 流式查询的fetchSize, MySQL需要设置为Integer.MIN_VALUE才会逐行读取
+     */
+    @Getter
+    @Setter
+    private int streamFetchSize = 1000;
+
+    /**
+     * in列表最大参数个数, 超过时拆分为多条语句; 参数个数会填充到2的幂, 因此该值会向下取整到2的幂
+     */
+    @Getter
+    private int maxInListSize = 512;
+
+    /**
+     * 数据库方言, 未设置时根据数据库元数据检测
+     */
+    @Setter
+    private volatile Dialect dialect;
+
+    /**
+     * 脏检查, 默认不启用; 启用后findById和findByIds得到的实体记录字段快照(流式查询和分页查询不记录),
+     * updateById和updateAllById只更新变化的列(包括变为null的列), 没有变化时不执行语句.
+     * 事务回滚后快照不会恢复, 回滚后应重新查询实体.
+     */
+    @Getter
+    @Setter
+    private volatile DirtyTracker dirtyTracker;
+
+    /**
+     * 操作监听器, 写时复制, 为空时不创建事件也不计时
+     */
+    private volatile OperationListener[] listeners = NO_LISTENERS;
+
     public JdbcTemplatePlus() {
     }
 
@@ -40,25 +150,396 @@ public class JdbcTemplatePlus extends JdbcTemplate {
         super(dataSource, lazyInit);
     }
 
-    public int insert(Object data) {
-        PreparedSql preparedSql = JdbcTemplateUtils.parseInsert(data);
-        DefaultPreparedStatementCreator psc = new DefaultPreparedStatementCreator(preparedSql.sql, preparedSql.args);
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-        int rows = this.update(psc, keyHolder);
-        if (rows > 0) {
-            setGenerateKey(data, keyHolder);
+    /**
+     * 单条语句最大绑定参数数量, 未设置时使用方言的限制
+     */
+    public int getMaxBindParameters() {
+        Integer maxBindParameters = this.maxBindParameters;
+        return (maxBindParameters != null) ? maxBindParameters : getDialect().getMaxBindParameters();
+    }
+
+    /**
+     * 覆盖方言的最大绑定参数数量
+     */
+    public void setMaxBindParameters(int maxBindParameters) {
+        InnerUtils.assertArgument(maxBindParameters > 0, "Max bind parameters must be positive");
+        this.maxBindParameters = maxBindParameters;
+    }
+
+    /**
+     * 多行插入单条语句最大行数, 未设置时使用方言的限制
+     */
+    public int getMaxInsertRows() {
+        Integer maxInsertRows = this.maxInsertRows;
+        return (maxInsertRows != null) ? maxInsertRows : getDialect().getMaxInsertRows();
+    }
+
+    /**
+     * 覆盖方言的多行插入最大行数
+     */
+    public void setMaxInsertRows(int maxInsertRows) {
+        InnerUtils.assertArgument(maxInsertRows > 0, "Max insert rows must be positive");
+        this.maxInsertRows = maxInsertRows;
+    }
+
+    public void setMaxInListSize(int maxInListSize) {
+        InnerUtils.assertArgument(maxInListSize > 0, "Max in list size must be positive");
+        this.maxInListSize = Integer.highestOneBit(maxInListSize);
+    }
+
+    /**
+     * 获得数据库方言, 未设置时根据数据库元数据检测
+     *
+     * @see Dialects#detect(java.sql.DatabaseMetaData)
+     */
+    public Dialect getDialect() {
+        Dialect dialect = this.dialect;
+        if (dialect == null) {
+            dialect = this.execute(new ConnectionCallback<Dialect>() {
+                @Override
+                public Dialect doInConnection(Connection con) throws SQLException {
+                    return Dialects.detect(con.getMetaData());
+                }
+            });
+            this.dialect = dialect;
         }
-        return rows;
+        return dialect;
+    }
+
+    /**
+     * 预热实体类, 应用启动时调用: 解析实体并生成常用SQL、映射信息, 避免首次请求时解析
+     *
+     * @see EntityInfo#warmUp(Dialect, int, boolean)
+     */
+    public void warmUp(Collection<? extends Class<?>> entityClasses) {
+        Dialect dialect = getDialect();
+        for (Class<?> entityClass : entityClasses) {
+            JdbcTemplateUtils.warmUp(entityClass, dialect, maxInListSize);
+        }
+    }
+
+    /**
+     * 扫描包(包括子包)下带有@Table或@Entity注解的类并预热
+     *
+     * @return 扫描到的实体类
+     */
+    public Set<Class<?>> warmUp(String... basePackages) {
+        Set<Class<?>> entityClasses = InnerUtils.scanEntityClasses(ClassUtils.getDefaultClassLoader(), basePackages);
+        warmUp(entityClasses);
+        return entityClasses;
     }
 
-    private void setGenerateKey(Object data, KeyHolder keyHolder) {
+    /**
+     * 添加操作监听器, 每次增删改查(包括批量操作)结束后调用
+     *
+     * @see OperationRecorder
+     */
+    public synchronized void addOperationListener(OperationListener listener) {
+        InnerUtils.assertArgument(listener != null, "Operation listener must not be null");
+        OperationListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    public synchronized void removeOperationListener(OperationListener listener) {
+        List<OperationListener> newListeners = new ArrayList<>(Arrays.asList(listeners));
+        if (newListeners.remove(listener)) {
+            listeners = newListeners.isEmpty() ? NO_LISTENERS
+                    : newListeners.toArray(new OperationListener[newListeners.size()]);
+        }
+    }
+
+    /**
+     * 开启慢操作日志, 返回的日志对象可以继续设置各操作类型的阈值、采样率、限流和隐藏的列
+     *
+     * @param threshold 全部操作类型的阈值
+     */
+    public SlowOperationLogger enableSlowOperationLog(long threshold, TimeUnit unit) {
+        SlowOperationLogger slowOperationLogger = new SlowOperationLogger(threshold, unit);
+        addOperationListener(slowOperationLogger);
+        return slowOperationLogger;
+    }
+
+    public int insert(final Object data) {
+        OperationEvent event = beginOperation(OperationType.INSERT, classOf(data), false);
+        try {
+            final BoundSql boundSql = JdbcTemplateUtils.bindInsert(data, getDialect());
+            final boolean generateKey = isGenerateKeyRequired(data);
+            PreparedStatementCreator psc = newStatementCreator(boundSql.sql, generateKey, data);
+            built(event, boundSql.sql, boundSql);
+            int rows = this.execute(psc, new PreparedStatementCallback<Integer>() {
+                @Override
+                public Integer doInPreparedStatement(PreparedStatement ps) throws SQLException {
+                    boundSql.setValues(ps);
+                    int rows = ps.executeUpdate();
+                    if (rows > 0 && generateKey) {
+                        setGenerateKeys(ps, Collections.singletonList(data), Collections.singletonList(0));
+                    }
+                    return rows;
+                }
+            });
+            executed(event, rows);
+            return rows;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 批量插入, 插入方式由{@link #insertMode}决定.
+     *
+     * @return 每个实体影响的行数, 顺序与集合迭代顺序一致
+     * @see #insertAll(Collection, InsertMode)
+     */
+    public int[] insertAll(Collection<?> data) {
+        return insertAll(data, insertMode);
+    }
+
+    /**
+     * 批量插入.
+     * <ul>
+     * <li>{@link InsertMode#BATCH}: 插入列相同(null值字段相同)的实体通过同一个PreparedStatement批量执行</li>
+     * <li>{@link InsertMode#MULTI_VALUES}: 同一类型实体使用全部列拼接为多行values语句, 按参数数量和数据包大小分段;
+     * 当数据库不能返回多行自增主键时, 主键为null的实体退化为批处理插入; 方言不支持多行插入时全部退化为批处理插入</li>
+     * </ul>
+     *
+     * @return 每个实体影响的行数, 顺序与集合迭代顺序一致
+     */
+    public int[] insertAll(Collection<?> data, InsertMode mode) {
+        InnerUtils.assertArgument(data != null, "Insert data must not be null");
+        List<Object> entities = new ArrayList<>(data);
+        OperationEvent event = beginOperation(OperationType.INSERT, firstClassOf(entities), true);
+        try {
+            int[] rows = new int[entities.size()];
+            List<Integer> indexes = new ArrayList<>(entities.size());
+            for (int i = 0; i < entities.size(); i++) {
+                indexes.add(i);
+            }
+            if (mode == InsertMode.MULTI_VALUES && getDialect().supportsMultiValuesInsert()) {
+                insertValues(entities, indexes, rows, event);
+            } else {
+                insertBatch(entities, indexes, rows, event);
+            }
+            return rows;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    private void insertBatch(List<Object> entities, List<Integer> indexes, int[] rows, OperationEvent event) {
+        BoundSql[] boundSqls = new BoundSql[entities.size()];
+        for (Integer index : indexes) {
+            boundSqls[index] = JdbcTemplateUtils.bindInsert(entities.get(index), getDialect());
+        }
+        if (!indexes.isEmpty()) {
+            built(event, boundSqls[indexes.get(0)].sql, boundSqls[indexes.get(0)]);
+        }
+        executeBatch(entities, boundSqls, indexes, rows, true);
+        executed(event, sumRows(rows, indexes));
+    }
+
+    /**
+     * 按语句分组批量执行, 相同语句的实体通过同一个PreparedStatement执行
+     *
+     * @param insert 是否为插入语句, 插入时回填自动生成的主键
+     */
+    private void executeBatch(List<Object> entities, BoundSql[] boundSqls, List<Integer> indexes, int[] rows,
+            boolean insert) {
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (Integer index : indexes) {
+            String sql = boundSqls[index].sql;
+            List<Integer> group = groups.get(sql);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(sql, group);
+            }
+            group.add(index);
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : groups.entrySet()) {
+            List<Integer> group = entry.getValue();
+            // 同组插入实体主键是否为null是一致的
+            boolean generateKey = insert && isGenerateKeyRequired(entities.get(group.get(0)));
+            for (int from = 0; from < group.size(); from += batchSize) {
+                List<Integer> chunk = group.subList(from, Math.min(from + batchSize, group.size()));
+                doExecuteBatch(entry.getKey(), entities, boundSqls, chunk, rows, generateKey);
+            }
+        }
+    }
+
+    private void insertValues(List<Object> entities, List<Integer> indexes, int[] rows, OperationEvent event) {
+        // 按实体类型和是否包含id列分组
+        Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+        List<Integer> batchIndexes = new ArrayList<>();
+        boolean generatedKeysSupported = getDialect().supportsMultiValuesGeneratedKeys();
+        for (Integer index : indexes) {
+            Object data = entities.get(index);
+            boolean includeId = !isGenerateKeyRequired(data);
+            if (!includeId && !generatedKeysSupported) {
+                batchIndexes.add(index);
+                continue;
+            }
+            List<Object> key = Arrays.<Object>asList(data.getClass(), includeId);
+            List<Integer> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(key, group);
+            }
+            group.add(index);
+        }
+
+        int maxRows = Math.min(batchSize, getMaxInsertRows());
+        int maxParameters = getMaxBindParameters();
+        for (Map.Entry<List<Object>, List<Integer>> entry : groups.entrySet()) {
+            EntityInfo<?> entityInfo = JdbcTemplateUtils.parseEntityClass((Class<?>) entry.getKey().get(0));
+            boolean includeId = (Boolean) entry.getKey().get(1);
+            int columns = includeId ? entityInfo.getColumnNames(true).size()
+                    : entityInfo.getColumnNamesExcludeId(true).size();
+            int chunkSize = Math.max(1, Math.min(maxRows, maxParameters / Math.max(1, columns)));
+
+            List<Integer> group = entry.getValue();
+            for (int from = 0; from < group.size(); from += chunkSize) {
+                List<Integer> chunk = group.subList(from, Math.min(from + chunkSize, group.size()));
+                doInsertValues(entities, chunk, includeId, rows, event);
+            }
+        }
+        if (!batchIndexes.isEmpty()) {
+            insertBatch(entities, batchIndexes, rows, event);
+        }
+    }
+
+    private void doInsertValues(final List<Object> entities, final List<Integer> indexes, final boolean includeId,
+            final int[] rows, OperationEvent event) {
+        List<Object> data = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            data.add(entities.get(index));
+        }
+        final PreparedSql preparedSql = JdbcTemplateUtils.parseInsertValues(data, includeId, getDialect());
+        // 超过数据包大小时对半拆分
+        if (indexes.size() > 1 && estimateSize(preparedSql) > maxPacketSize) {
+            int half = indexes.size() / 2;
+            doInsertValues(entities, indexes.subList(0, half), includeId, rows, event);
+            doInsertValues(entities, indexes.subList(half, indexes.size()), includeId, rows, event);
+            return;
+        }
+
+        PreparedStatementCreator psc = newStatementCreator(preparedSql.sql, !includeId, data.get(0));
+        built(event, preparedSql.sql, preparedSql);
+        this.execute(psc, new PreparedStatementCallback<Object>() {
+            @Override
+            public Object doInPreparedStatement(PreparedStatement ps) throws SQLException {
+                new ArgumentPreparedStatementSetter(preparedSql.args).setValues(ps);
+                int count = ps.executeUpdate();
+                for (Integer index : indexes) {
+                    rows[index] = (count == indexes.size()) ? 1 : Statement.SUCCESS_NO_INFO;
+                }
+                if (!includeId) {
+                    setGenerateKeys(ps, entities, indexes);
+                }
+                return null;
+            }
+        });
+        executed(event, sumRows(rows, indexes));
+    }
+
+    /**
+     * 估算语句发送到数据库的字节数
+     */
+    private static long estimateSize(PreparedSql preparedSql) {
+        long size = preparedSql.sql.length();
+        for (Object arg : preparedSql.args) {
+            if (arg instanceof CharSequence) {
+                size += ((CharSequence) arg).length() * 3L;
+            } else if (arg instanceof byte[]) {
+                size += ((byte[]) arg).length * 2L;
+            } else {
+                size += 24;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 创建语句, 需要自增主键时根据方言按列名或者RETURN_GENERATED_KEYS获取
+     */
+    private PreparedStatementCreator newStatementCreator(String sql, boolean generateKey, Object data) {
+        String[] keyColumns = null;
+        if (generateKey && getDialect().supportsGeneratedKeyColumns()) {
+            EntityInfo<?> entityInfo = JdbcTemplateUtils.parseEntityClass(data.getClass());
+            keyColumns = new String[]{entityInfo.getIdColumnName(true)};
+        }
+        return new DefaultPreparedStatementCreator(sql, generateKey, keyColumns);
+    }
+
+    private void doExecuteBatch(String sql, final List<Object> entities, final BoundSql[] boundSqls,
+            final List<Integer> indexes, final int[] rows, final boolean generateKey) {
+        PreparedStatementCreator psc = newStatementCreator(sql, generateKey, entities.get(indexes.get(0)));
+        this.execute(psc, new PreparedStatementCallback<Object>() {
+            @Override
+            public Object doInPreparedStatement(PreparedStatement ps) throws SQLException {
+                if (JdbcUtils.supportsBatchUpdates(ps.getConnection())) {
+                    for (Integer index : indexes) {
+                        boundSqls[index].setValues(ps);
+                        ps.addBatch();
+                    }
+                    int[] counts = ps.executeBatch();
+                    for (int i = 0; i < counts.length && i < indexes.size(); i++) {
+                        rows[indexes.get(i)] = counts[i];
+                    }
+                    if (generateKey) {
+                        setGenerateKeys(ps, entities, indexes);
+                    }
+                } else {
+                    for (Integer index : indexes) {
+                        boundSqls[index].setValues(ps);
+                        rows[index] = ps.executeUpdate();
+                        if (generateKey) {
+                            setGenerateKeys(ps, entities, Collections.singletonList(index));
+                        }
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 按顺序将自动生成的主键设置到实体中
+     */
+    private void setGenerateKeys(PreparedStatement ps, List<Object> entities, List<Integer> indexes)
+            throws SQLException {
+        ResultSet keys = ps.getGeneratedKeys();
+        try {
+            for (int i = 0; i < indexes.size() && keys.next(); i++) {
+                Object key = keys.getObject(1);
+                if (key instanceof Number) {
+                    setGenerateKey(entities.get(indexes.get(i)), (Number) key);
+                }
+            }
+        } finally {
+            JdbcUtils.closeResultSet(keys);
+        }
+    }
+
+    private boolean isGenerateKeyRequired(Object data) {
+        EntityInfo<?> entityInfo = JdbcTemplateUtils.parseEntityClass(data.getClass());
+        FieldInfo idFieldInfo = entityInfo.getIdFieldInfo();
+        return idFieldInfo != null && idFieldInfo.get(data) == null;
+    }
+
+    private void setGenerateKey(Object data, Number key) {
         EntityInfo<?> entityInfo = JdbcTemplateUtils.parseEntityClass(data.getClass());
         FieldInfo idFieldInfo = entityInfo.getIdFieldInfo();
         if (idFieldInfo == null || idFieldInfo.get(data) != null) {
             return;
         }
 
-        Number key = keyHolder.getKey();
         if (key == null) {
             return;
         }
@@ -71,45 +552,756 @@ public class JdbcTemplatePlus extends JdbcTemplate {
     }
 
     public int deleteById(Object id, Class<?> entityClass) {
-        PreparedSql preparedSql = JdbcTemplateUtils.parseDelete(id, entityClass);
-        return this.update(preparedSql.sql, preparedSql.args);
+        OperationEvent event = beginOperation(OperationType.DELETE, entityClass, false);
+        try {
+            PreparedSql preparedSql = JdbcTemplateUtils.parseDelete(id, entityClass, getDialect());
+            built(event, preparedSql.sql, preparedSql.args);
+            int rows = this.update(preparedSql.sql, preparedSql.args);
+            executed(event, rows);
+            return rows;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
     }
 
+    /**
+     * 根据多个主键删除; 方言支持数组绑定时使用一条语句, 否则主键数量超过{@link #maxInListSize}时分多条语句执行
+     */
     public int deleteByIds(Collection<?> ids, Class<?> entityClass) {
-        PreparedSql preparedSql = JdbcTemplateUtils.parseDelete(ids, entityClass);
-        return this.update(preparedSql.sql, preparedSql.args);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        OperationEvent event = beginOperation(OperationType.DELETE, entityClass, true);
+        try {
+            PreparedSql arraySql = JdbcTemplateUtils.parseDelete(ids, entityClass, getDialect());
+            if (arraySql != null) {
+                built(event, arraySql.sql, arraySql.args);
+                int rows = this.update(arraySql.sql, arraySql.args);
+                executed(event, rows);
+                return rows;
+            }
+            int rows = 0;
+            for (List<?> chunk : InnerUtils.partition(ids, maxInListSize)) {
+                PreparedSql preparedSql = JdbcTemplateUtils.parseDeleteIn(chunk, entityClass, getDialect());
+                built(event, preparedSql.sql, preparedSql.args);
+                int chunkRows = this.update(preparedSql.sql, preparedSql.args);
+                executed(event, chunkRows);
+                rows += chunkRows;
+            }
+            return rows;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
     }
 
+    /**
+     * 根据主键更新, null值字段不参与更新; 启用脏检查且实体有快照时只更新变化的列.
+     *
+     * @return 影响的行数, 脏检查发现没有变化时不执行语句并返回0
+     * @see #setDirtyTracker(DirtyTracker)
+     */
     public int updateById(Object data) {
-        PreparedSql preparedSql = JdbcTemplateUtils.parseUpdate(data);
-        return this.update(preparedSql.sql, preparedSql.args);
+        DirtyTracker dirtyTracker = this.dirtyTracker;
+        long changedMask = mask(dirtyTracker, data);
+        if (changedMask == 0L) {
+            return 0;
+        }
+        OperationEvent event = beginOperation(OperationType.UPDATE, classOf(data), false);
+        try {
+            BoundSql boundSql = bindUpdate(data, changedMask);
+            built(event, boundSql.sql, boundSql);
+            int rows = this.update(boundSql.sql, boundSql);
+            executed(event, rows);
+            if (changedMask != EntityInfo.NONE_MASK && rows != 0) {
+                refreshSnapshot(dirtyTracker, boundSql.getEntityInfo(), data);
+            }
+            return rows;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 根据主键批量更新, null值字段不参与更新; 更新列相同的实体通过同一个PreparedStatement批量执行.
+     * <p>
+     * 启用脏检查时有快照的实体只更新变化的列, 没有变化的实体不执行语句.
+     *
+     * @return 每个实体影响的行数, 顺序与集合迭代顺序一致, 没有变化的实体为0
+     */
+    public int[] updateAllById(Collection<?> data) {
+        InnerUtils.assertArgument(data != null, "Update data must not be null");
+        List<Object> entities = new ArrayList<>(data);
+        DirtyTracker dirtyTracker = this.dirtyTracker;
+        OperationEvent event = beginOperation(OperationType.UPDATE, firstClassOf(entities), true);
+        try {
+            BoundSql[] boundSqls = new BoundSql[entities.size()];
+            List<Integer> indexes = new ArrayList<>(entities.size());
+            List<Integer> trackedIndexes = new ArrayList<>();
+            for (int i = 0; i < entities.size(); i++) {
+                long changedMask = mask(dirtyTracker, entities.get(i));
+                if (changedMask == 0L) {
+                    continue;
+                }
+                if (changedMask != EntityInfo.NONE_MASK) {
+                    trackedIndexes.add(i);
+                }
+                boundSqls[i] = bindUpdate(entities.get(i), changedMask);
+                indexes.add(i);
+            }
+            int[] rows = executeBatch(entities, boundSqls, indexes, event);
+            for (Integer i : trackedIndexes) {
+                // 批量执行时驱动可能返回SUCCESS_NO_INFO(-2), 只跳过确定没有匹配的行
+                if (rows[i] != 0) {
+                    refreshSnapshot(dirtyTracker, boundSqls[i].getEntityInfo(), entities.get(i));
+                }
+            }
+            return rows;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 插入或更新(全部列), 主键已存在时更新其他列, 只需一条语句.
+     * <p>
+     * 实体主键不能为null; 影响行数由数据库决定, 例如MySQL更新已存在的行时返回2.
+     *
+     * @see #getDialect()
+     */
+    public int upsert(Object data) {
+        OperationEvent event = beginOperation(OperationType.UPSERT, classOf(data), false);
+        try {
+            BoundSql boundSql = bindUpsert(data, getDialect());
+            built(event, boundSql.sql, boundSql);
+            int rows = this.update(boundSql.sql, boundSql);
+            executed(event, rows);
+            return rows;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 批量插入或更新(全部列), 同一类型的实体通过同一个PreparedStatement批量执行.
+     *
+     * @return 每个实体影响的行数, 顺序与集合迭代顺序一致
+     * @see #upsert(Object)
+     */
+    public int[] upsertAll(Collection<?> data) {
+        InnerUtils.assertArgument(data != null, "Upsert data must not be null");
+        List<Object> entities = new ArrayList<>(data);
+        OperationEvent event = beginOperation(OperationType.UPSERT, firstClassOf(entities), true);
+        try {
+            BoundSql[] boundSqls = new BoundSql[entities.size()];
+            List<Integer> indexes = new ArrayList<>(entities.size());
+            Dialect dialect = entities.isEmpty() ? null : getDialect();
+            for (int i = 0; i < entities.size(); i++) {
+                boundSqls[i] = bindUpsert(entities.get(i), dialect);
+                indexes.add(i);
+            }
+            return executeBatch(entities, boundSqls, indexes, event);
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 批量执行更新语句, 语句已全部生成
+     */
+    private int[] executeBatch(List<Object> entities, BoundSql[] boundSqls, List<Integer> indexes,
+            OperationEvent event) {
+        if (!indexes.isEmpty()) {
+            BoundSql first = boundSqls[indexes.get(0)];
+            built(event, first.sql, first);
+        }
+        int[] rows = new int[entities.size()];
+        executeBatch(entities, boundSqls, indexes, rows, false);
+        executed(event, sumRows(rows, indexes));
+        return rows;
+    }
+
+    /**
+     * 获得相对快照发生变化的字段掩码, 未启用脏检查或实体没有快照时返回{@link EntityInfo#NONE_MASK}
+     */
+    /**
+     * 更新后刷新实体快照, 快照值在更新时读取.
+     * <p>
+     * 事务中提交后才写入快照, 回滚时删除快照: 否则快照保存了未提交的值, 重试同一更新时会认为没有变化而跳过.
+     */
+    private static void refreshSnapshot(final DirtyTracker dirtyTracker, EntityInfo<Object> entityInfo,
+            final Object data) {
+        final Object[] snapshot = entityInfo.createSnapshot(data);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dirtyTracker.putSnapshot(data, snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    dirtyTracker.putSnapshot(data, snapshot);
+                } else {
+                    dirtyTracker.forget(data);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> long mask(DirtyTracker dirtyTracker, T data) {
+        if (dirtyTracker == null || data == null) {
+            return EntityInfo.NONE_MASK;
+        }
+        EntityInfo<T> entityInfo = JdbcTemplateUtils.parseEntityClass((Class<T>) data.getClass());
+        return dirtyTracker.getChangedFieldsMask(entityInfo, data);
+    }
+
+    private BoundSql bindUpdate(Object data, long changedMask) {
+        if (changedMask != EntityInfo.NONE_MASK) {
+            return JdbcTemplateUtils.bindUpdate(data, changedMask, getDialect());
+        }
+        return JdbcTemplateUtils.bindUpdate(data, getDialect());
+    }
+
+    private BoundSql bindUpsert(Object data, Dialect dialect) {
+        InnerUtils.assertArgument(data != null, "Upsert data must not be null");
+        InnerUtils.assertArgument(!isGenerateKeyRequired(data), "Upsert entity id must not be null");
+        return JdbcTemplateUtils.bindUpsert(data, dialect);
     }
 
     public <T> T findById(Object id, Class<T> entityClass) {
-        PreparedSql preparedSql = JdbcTemplateUtils.parseFind(id, entityClass);
-        RowMapper<T> rowMapper = JdbcTemplateUtils.parseRowMapper(entityClass);
-        return this.queryForObject(preparedSql.sql, rowMapper, preparedSql.args);
+        OperationEvent event = beginOperation(OperationType.FIND, entityClass, false);
+        try {
+            PreparedSql preparedSql = JdbcTemplateUtils.parseFind(id, entityClass, getDialect());
+            RowMapper<T> rowMapper = JdbcTemplateUtils.parseRowMapper(entityClass, dirtyTracker);
+            return doQueryForObject(event, preparedSql, rowMapper);
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
     }
 
+    /**
+     * 根据多个主键查询; 方言支持数组绑定时使用一条语句, 否则主键数量超过{@link #maxInListSize}时分多条语句执行
+     */
     public <T> List<T> findByIds(Collection<?> ids, Class<T> entityClass) {
-        PreparedSql preparedSql = JdbcTemplateUtils.parseFind(ids, entityClass);
+        RowMapper<T> rowMapper = JdbcTemplateUtils.parseRowMapper(entityClass, dirtyTracker);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        OperationEvent event = beginOperation(OperationType.FIND, entityClass, true);
+        try {
+            PreparedSql arraySql = JdbcTemplateUtils.parseFind(ids, entityClass, getDialect());
+            if (arraySql != null) {
+                return doQuery(event, arraySql, rowMapper);
+            }
+            // 重复主键可能分到不同的语句, 先去重避免返回重复的行
+            Set<Object> distinctIds = new LinkedHashSet<Object>(ids);
+            List<T> results = new ArrayList<>(distinctIds.size());
+            for (List<?> chunk : InnerUtils.partition(distinctIds, maxInListSize)) {
+                PreparedSql preparedSql = JdbcTemplateUtils.parseFindIn(chunk, entityClass, getDialect());
+                results.addAll(doQuery(event, preparedSql, rowMapper));
+            }
+            return results;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 根据主键查询部分列, 其他字段保持默认值
+     *
+     * @param fields 字段名或列名
+     */
+    public <T> T findById(Object id, Class<T> entityClass, String... fields) {
+        OperationEvent event = beginOperation(OperationType.FIND, entityClass, false);
+        try {
+            PreparedSql preparedSql = JdbcTemplateUtils.parseFind(id, entityClass, fields, getDialect());
+            RowMapper<T> rowMapper = JdbcTemplateUtils.parseRowMapper(entityClass, dirtyTracker);
+            return doQueryForObject(event, preparedSql, rowMapper);
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 根据多个主键查询部分列, 其他字段保持默认值; 主键数量超过{@link #maxInListSize}时分多条语句执行
+     *
+     * @param fields 字段名或列名
+     */
+    public <T> List<T> findByIds(Collection<?> ids, Class<T> entityClass, String... fields) {
+        RowMapper<T> rowMapper = JdbcTemplateUtils.parseRowMapper(entityClass, dirtyTracker);
+        return doFindByIds(ids, entityClass, fields, rowMapper);
+    }
+
+    /**
+     * 根据主键查询, 只查询结果类型(例如DTO)的列并映射为结果类型, 结果类型不要求有主键
+     */
+    public <R> R findById(Object id, Class<?> entityClass, Class<R> resultClass) {
+        OperationEvent event = beginOperation(OperationType.FIND, entityClass, false);
+        try {
+            String[] fields = JdbcTemplateUtils.parseProjectionFields(resultClass);
+            PreparedSql preparedSql = JdbcTemplateUtils.parseFind(id, entityClass, fields, getDialect());
+            RowMapper<R> rowMapper = JdbcTemplateUtils.parseProjectionRowMapper(resultClass);
+            return doQueryForObject(event, preparedSql, rowMapper);
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 根据多个主键查询, 只查询结果类型(例如DTO)的列并映射为结果类型
+     */
+    public <R> List<R> findByIds(Collection<?> ids, Class<?> entityClass, Class<R> resultClass) {
+        String[] fields = JdbcTemplateUtils.parseProjectionFields(resultClass);
+        RowMapper<R> rowMapper = JdbcTemplateUtils.parseProjectionRowMapper(resultClass);
+        return doFindByIds(ids, entityClass, fields, rowMapper);
+    }
+
+    private <R> List<R> doFindByIds(Collection<?> ids, Class<?> entityClass, String[] fields,
+            RowMapper<R> rowMapper) {
+        OperationEvent event = beginOperation(OperationType.FIND, entityClass, true);
+        try {
+            Set<Object> distinctIds = new LinkedHashSet<Object>(ids);
+            List<R> results = new ArrayList<>(distinctIds.size());
+            for (List<?> chunk : InnerUtils.partition(distinctIds, maxInListSize)) {
+                PreparedSql preparedSql = JdbcTemplateUtils.parseFind(chunk, entityClass, fields, getDialect());
+                results.addAll(doQuery(event, preparedSql, rowMapper));
+            }
+            return results;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 判断主键是否存在, 只查询主键列, 不映射实体
+     */
+    public boolean existsById(Object id, Class<?> entityClass) {
+        OperationEvent event = beginOperation(OperationType.EXISTS, entityClass, false);
+        try {
+            PreparedSql preparedSql = JdbcTemplateUtils.parseExists(id, entityClass, getDialect());
+            built(event, preparedSql.sql, preparedSql.args);
+            boolean exists = this.query(preparedSql.sql, new ResultSetExtractor<Boolean>() {
+                @Override
+                public Boolean extractData(ResultSet rs) throws SQLException {
+                    return rs.next();
+                }
+            }, preparedSql.args);
+            executed(event, exists ? 1 : 0);
+            return exists;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 查询已存在的主键, 只查询主键列, 不映射实体
+     *
+     * @return 已存在的主键, 顺序与参数迭代顺序一致
+     */
+    public <ID> Set<ID> existsByIds(Collection<ID> ids, Class<?> entityClass) {
+        Set<ID> results = new LinkedHashSet<>();
+        if (ids.isEmpty()) {
+            return results;
+        }
+        OperationEvent event = beginOperation(OperationType.EXISTS, entityClass, true);
+        try {
+            Set<ID> distinctIds = new LinkedHashSet<>(ids);
+            EntityInfo<?> entityInfo = JdbcTemplateUtils.parseEntityClass(entityClass);
+            final Class<?> idType = ClassUtils.resolvePrimitiveIfNecessary(entityInfo.getIdFieldInfo().getType());
+            final Set<Object> found = new HashSet<>();
+            ResultSetExtractor<Object> rse = new ResultSetExtractor<Object>() {
+                @Override
+                public Object extractData(ResultSet rs) throws SQLException {
+                    while (rs.next()) {
+                        found.add(JdbcUtils.getResultSetValue(rs, 1, idType));
+                    }
+                    return null;
+                }
+            };
+            PreparedSql arraySql = JdbcTemplateUtils.parseFindIds(distinctIds, entityClass, getDialect());
+            if (arraySql != null) {
+                built(event, arraySql.sql, arraySql.args);
+                this.query(arraySql.sql, rse, arraySql.args);
+                executed(event, found.size());
+            } else {
+                for (List<ID> chunk : InnerUtils.partition(distinctIds, maxInListSize)) {
+                    PreparedSql preparedSql = JdbcTemplateUtils.parseFindIdsIn(chunk, entityClass, getDialect());
+                    built(event, preparedSql.sql, preparedSql.args);
+                    int before = found.size();
+                    this.query(preparedSql.sql, rse, preparedSql.args);
+                    executed(event, found.size() - before);
+                }
+            }
+            for (ID id : distinctIds) {
+                // 读取的主键是实体主键类型, 参数可能是其他数字类型, 例如Long主键传入Integer
+                if (found.contains(toIdType(id, idType))) {
+                    results.add(id);
+                }
+            }
+            return results;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 数字主键转换为实体主键类型, 不能转换时返回原值
+     */
+    private static Object toIdType(Object id, Class<?> idType) {
+        if (id instanceof Number) {
+            Object converted = InnerUtils.convertNumberType((Number) id, idType);
+            if (converted != null) {
+                return converted;
+            }
+        }
+        return id;
+    }
+
+    /**
+     * 统计全部行数
+     */
+    public long count(Class<?> entityClass) {
+        OperationEvent event = beginOperation(OperationType.COUNT, entityClass, false);
+        try {
+            PreparedSql preparedSql = JdbcTemplateUtils.parseCount(entityClass, getDialect());
+            Long count = doQueryForCount(event, preparedSql);
+            return (count != null) ? count : 0L;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 统计多个主键中已存在的个数, 重复的主键只统计一次
+     */
+    public long countByIds(Collection<?> ids, Class<?> entityClass) {
+        if (ids.isEmpty()) {
+            return 0L;
+        }
+        OperationEvent event = beginOperation(OperationType.COUNT, entityClass, true);
+        try {
+            Set<Object> distinctIds = new LinkedHashSet<Object>(ids);
+            PreparedSql arraySql = JdbcTemplateUtils.parseCount(distinctIds, entityClass, getDialect());
+            if (arraySql != null) {
+                return doQueryForCount(event, arraySql);
+            }
+            long count = 0L;
+            for (List<Object> chunk : InnerUtils.partition(distinctIds, maxInListSize)) {
+                PreparedSql preparedSql = JdbcTemplateUtils.parseCountIn(chunk, entityClass, getDialect());
+                count += doQueryForCount(event, preparedSql);
+            }
+            return count;
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 按主键顺序分页查询(keyset分页): where id > ? order by id limit ?, 查询代价与页的位置无关.
+     *
+     * @param lastId 上一页最后一条数据的主键, 为null时查询第一页
+     * @param size   每页最大条数
+     */
+    public <T> Slice<T> findPageAfter(Object lastId, int size, Class<T> entityClass) {
+        InnerUtils.assertArgument(size > 0, "Page size must be positive");
+        OperationEvent event = beginOperation(OperationType.FIND, entityClass, true);
+        try {
+            PreparedSql preparedSql = JdbcTemplateUtils.parseFindPage(lastId, size, entityClass, getDialect());
+            RowMapper<T> rowMapper = JdbcTemplateUtils.parseRowMapper(entityClass);
+            List<T> content = doQuery(event, preparedSql, rowMapper);
+            Object nextId = lastId;
+            if (!content.isEmpty()) {
+                EntityInfo<T> entityInfo = JdbcTemplateUtils.parseEntityClass(entityClass);
+                nextId = entityInfo.getIdValue(content.get(content.size() - 1));
+            }
+            return new Slice<>(content, size, nextId);
+        } catch (RuntimeException | Error e) {
+            failOperation(event, e);
+            throw e;
+        } finally {
+            endOperation(event);
+        }
+    }
+
+    /**
+     * 按主键顺序逐页遍历整张表, 每次调用next时查询下一页, 不返回空页.
+     *
+     * @see #findPageAfter(Object, int, Class)
+     */
+    public <T> Iterator<Slice<T>> slices(int size, Class<T> entityClass) {
+        InnerUtils.assertArgument(size > 0, "Page size must be positive");
+        return new SliceIterator<>(this, size, entityClass);
+    }
+
+    /**
+     * 流式查询, 逐行读取并映射为实体, 不会一次性加载全部结果.
+     * <p>
+     * 迭代器持有数据库连接直到读取完毕, 提前结束时必须关闭迭代器.
+     *
+     * @see #setStreamFetchSize(int)
+     */
+    public <T> ResultIterator<T> iterate(String sql, Class<T> entityClass, Object... args) {
         RowMapper<T> rowMapper = JdbcTemplateUtils.parseRowMapper(entityClass);
-        return this.query(preparedSql.sql, rowMapper, preparedSql.args);
+        DataSource dataSource = obtainDataSource();
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            applyStatementSettings(ps);
+            new StreamPreparedStatementSetter(streamFetchSize, args).setValues(ps);
+            rs = ps.executeQuery();
+            return new ResultIterator<>(sql, rs, ps, con, dataSource, rowMapper, getExceptionTranslator());
+        } catch (SQLException e) {
+            JdbcUtils.closeResultSet(rs);
+            JdbcUtils.closeStatement(ps);
+            DataSourceUtils.releaseConnection(con, dataSource);
+            throw translateException("iterate", sql, e);
+        }
+    }
+
+    /**
+     * 流式查询, 逐行读取并映射为实体后交给回调处理, 不会一次性加载全部结果.
+     *
+     * @return 处理的行数
+     * @see #setStreamFetchSize(int)
+     */
+    public <T> long forEach(String sql, Class<T> entityClass, final EntityCallback<T> callback, Object... args) {
+        final RowMapper<T> rowMapper = JdbcTemplateUtils.parseRowMapper(entityClass);
+        PreparedStatementCreator psc = new DefaultPreparedStatementCreator(sql, false, null);
+        PreparedStatementSetter pss = new StreamPreparedStatementSetter(streamFetchSize, args);
+        return this.query(psc, pss, new ResultSetExtractor<Long>() {
+            @Override
+            public Long extractData(ResultSet rs) throws SQLException {
+                int rowNum = 0;
+                while (rs.next()) {
+                    callback.process(rowMapper.mapRow(rs, rowNum++));
+                }
+                return (long) rowNum;
+            }
+        });
+    }
+
+    private <T> T doQueryForObject(OperationEvent event, PreparedSql preparedSql, RowMapper<T> rowMapper) {
+        built(event, preparedSql.sql, preparedSql.args);
+        T result = this.queryForObject(preparedSql.sql, timing(event, rowMapper), preparedSql.args);
+        executed(event, 1);
+        return result;
+    }
+
+    private <T> List<T> doQuery(OperationEvent event, PreparedSql preparedSql, RowMapper<T> rowMapper) {
+        built(event, preparedSql.sql, preparedSql.args);
+        List<T> results = this.query(preparedSql.sql, timing(event, rowMapper), preparedSql.args);
+        executed(event, results.size());
+        return results;
     }
 
+    private Long doQueryForCount(OperationEvent event, PreparedSql preparedSql) {
+        built(event, preparedSql.sql, preparedSql.args);
+        Long count = this.queryForObject(preparedSql.sql, Long.class, preparedSql.args);
+        executed(event, 1);
+        return count;
+    }
+
+    /**
+     * 有监听器时创建操作事件, 否则返回null, 后续的计时方法对null不做任何事
+     */
+    private OperationEvent beginOperation(OperationType type, Class<?> entityClass, boolean batch) {
+        return (listeners.length == 0) ? null : new OperationEvent(type, entityClass, batch);
+    }
+
+    private static void built(OperationEvent event, String sql, Object args) {
+        if (event != null) {
+            event.built(sql, args);
+        }
+    }
+
+    private static void executed(OperationEvent event, long rows) {
+        if (event != null) {
+            event.executed(rows);
+        }
+    }
+
+    private static <T> RowMapper<T> timing(OperationEvent event, RowMapper<T> rowMapper) {
+        return (event != null) ? event.timing(rowMapper) : rowMapper;
+    }
+
+    private static void failOperation(OperationEvent event, Throwable e) {
+        if (event != null) {
+            event.failed(e);
+        }
+    }
+
+    private void endOperation(OperationEvent event) {
+        if (event == null) {
+            return;
+        }
+        event.finish();
+        for (OperationListener listener : listeners) {
+            try {
+                listener.onOperation(event);
+            } catch (RuntimeException e) {
+                logger.warn("Operation listener failed: " + listener, e);
+            }
+        }
+    }
+
+    private static Class<?> classOf(Object data) {
+        return (data != null) ? data.getClass() : null;
+    }
+
+    private static Class<?> firstClassOf(List<Object> entities) {
+        return entities.isEmpty() ? null : classOf(entities.get(0));
+    }
+
+    /**
+     * 统计批处理影响的行数, 无法获得具体行数时按1计算
+     */
+    private static long sumRows(int[] rows, List<Integer> indexes) {
+        long sum = 0;
+        for (Integer index : indexes) {
+            if (rows[index] > 0) {
+                sum += rows[index];
+            } else if (rows[index] == Statement.SUCCESS_NO_INFO) {
+                sum++;
+            }
+        }
+        return sum;
+    }
 
+    /**
+     * 设置流式查询fetchSize和参数, 在JdbcTemplate通用语句设置之后执行
+     */
     @AllArgsConstructor
-    private static class DefaultPreparedStatementCreator implements PreparedStatementCreator {
+    private static class StreamPreparedStatementSetter implements PreparedStatementSetter {
 
-        private final String sql;
+        private final int fetchSize;
         private final Object[] args;
 
+        @Override
+        public void setValues(PreparedStatement ps) throws SQLException {
+            ps.setFetchSize(fetchSize);
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+        }
+    }
+
+    /**
+     * 按主键顺序逐页查询的迭代器, 预先查询下一页以判断是否结束
+     */
+    private static class SliceIterator<T> implements Iterator<Slice<T>> {
+
+        private final JdbcTemplatePlus jdbcTemplate;
+        private final int size;
+        private final Class<T> entityClass;
+        /**
+         * 已查询未返回的下一页
+         */
+        private Slice<T> next;
+        private Object lastId;
+        private boolean finished;
+
+        SliceIterator(JdbcTemplatePlus jdbcTemplate, int size, Class<T> entityClass) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.size = size;
+            this.entityClass = entityClass;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !finished) {
+                next = jdbcTemplate.findPageAfter(lastId, size, entityClass);
+                finished = next.isEmpty();
+            }
+            return next != null && !next.isEmpty();
+        }
+
+        @Override
+        public Slice<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Slice<T> slice = next;
+            next = null;
+            lastId = slice.getLastId();
+            finished = !slice.hasNext();
+            return slice;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+
+    @AllArgsConstructor
+    private static class DefaultPreparedStatementCreator implements PreparedStatementCreator, SqlProvider {
+
+        private final String sql;
+        private final boolean generateKey;
+        /**
+         * 按列名获取自增主键, 为null时使用RETURN_GENERATED_KEYS
+         */
+        private final String[] keyColumns;
+
         @Override
         public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
-            PreparedStatement ps = con.prepareStatement(sql);
-            PreparedStatementSetter pss = new ArgumentPreparedStatementSetter(args);
-            pss.setValues(ps);
-            return ps;
+            if (generateKey && keyColumns != null) {
+                return con.prepareStatement(sql, keyColumns);
+            } else if (generateKey) {
+                return con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            }
+            return con.prepareStatement(sql);
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
         }
     }
 
@@ -1,11 +1,16 @@
 package com.github.lkqm.spring.jdbc;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import org.springframework.jdbc.core.RowMapper;
 
 /**
  * JdbcTemplate工具类，解析实体类信息为JdbcTemplate相关数据。
+ * <p>
+ * 带{@link Dialect}参数的方法按方言引用保留字和大小写混合的表名、列名, 方言为null时不引用.
+ *
+ * @see EntityInfo#forDialect(Dialect)
  */
 public class JdbcTemplateUtils {
 
@@ -16,38 +21,105 @@ public class JdbcTemplateUtils {
      */
     public static PreparedSql parseInsert(Object data) {
         EntityInfo<Object> entityInfo = getEntityInfo(data.getClass());
-        String table = entityInfo.getTableName(SNAKE);
-        String columns = entityInfo.getInsertColumnsSqlSnippetSelective(data, SNAKE);
-        List<Object> values = entityInfo.getColumnValuesSelective(data);
-        String valuesReplacer = InnerUtils.join(", ", InnerUtils.fillList("?", values.size()));
-
-        String sql = String.format("insert into %s(%s) values(%s)", table, columns, valuesReplacer);
-        Object[] args = values.toArray();
+        Object[] fieldValues = entityInfo.getFieldValues(data);
+        String sql = entityInfo.getInsertSqlSelective(fieldValues, SNAKE);
+        Object[] args = entityInfo.getColumnValuesSelective(data, fieldValues, true).toArray();
         return new PreparedSql(sql, args);
     }
 
+    /**
+     * 解析插入语句, 字段值只读取一次, 同时用于生成语句和绑定参数
+     */
+    public static BoundSql bindInsert(Object data) {
+        return bindInsert(data, null);
+    }
+
+    /**
+     * 解析插入语句, 字段值只读取一次, 同时用于生成语句和绑定参数
+     */
+    public static BoundSql bindInsert(Object data, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(data.getClass(), dialect);
+        Object[] fieldValues = entityInfo.getFieldValues(data);
+        String sql = entityInfo.getInsertSqlSelective(fieldValues, SNAKE);
+        return new BoundSql(sql, entityInfo, data, fieldValues, true, false);
+    }
+
+    /**
+     * 解析多行插入语句, 使用全部列保证每行结构一致, 例如: insert into t(id, name) values(?, ?), (?, ?)
+     *
+     * @param data      同一类型的实体
+     * @param includeId 是否包含id列, 不包含时由数据库生成主键
+     */
+    public static PreparedSql parseInsertValues(List<?> data, boolean includeId) {
+        return parseInsertValues(data, includeId, null);
+    }
+
+    /**
+     * 解析多行插入语句, 使用全部列保证每行结构一致, 例如: insert into t(id, name) values(?, ?), (?, ?)
+     *
+     * @param data      同一类型的实体
+     * @param includeId 是否包含id列, 不包含时由数据库生成主键
+     */
+    public static PreparedSql parseInsertValues(List<?> data, boolean includeId, Dialect dialect) {
+        InnerUtils.assertArgument(data != null && !data.isEmpty(), "Insert data must not be empty");
+        EntityInfo<Object> entityInfo = getEntityInfo(data.get(0).getClass(), dialect);
+        String sql = entityInfo.getInsertValuesSql(data.size(), includeId, SNAKE);
+        List<String> columns = includeId ? entityInfo.getColumnNames(SNAKE) : entityInfo.getColumnNamesExcludeId(SNAKE);
+        List<Object> values = new ArrayList<>(columns.size() * data.size());
+        List<String> names = new ArrayList<>(columns.size() * data.size());
+        for (Object one : data) {
+            values.addAll(includeId ? entityInfo.getColumnValues(one) : entityInfo.getColumnValuesExcludeId(one));
+            names.addAll(columns);
+        }
+        return new PreparedSql(sql, values.toArray(), names);
+    }
+
     /**
      * 解析删除语句
      */
     public static PreparedSql parseDelete(Object id, Class<?> entityClass) {
-        EntityInfo<Object> entityInfo = getEntityInfo(entityClass);
-        String table = entityInfo.getTableName(SNAKE);
-        String idColumn = entityInfo.getIdColumnName(SNAKE);
-        String sql = String.format("delete from %s where %s = ?", table, idColumn);
+        return parseDelete(id, entityClass, (Dialect) null);
+    }
+
+    /**
+     * 解析删除语句
+     */
+    public static PreparedSql parseDelete(Object id, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getDeleteByIdSql(SNAKE);
         Object[] args = {id};
         return new PreparedSql(sql, args);
     }
 
     /**
-     * 解析删除语句
+     * 解析删除语句, 主键个数填充到2的幂以复用语句
      */
     public static PreparedSql parseDelete(Collection<?> ids, Class<?> entityClass) {
-        EntityInfo<Object> entityInfo = getEntityInfo(entityClass);
-        String table = entityInfo.getTableName(SNAKE);
-        String idColumn = entityInfo.getIdColumnName(SNAKE);
-        String idReplacers = InnerUtils.join(", ", InnerUtils.fillList("?", ids.size()));
-        String sql = String.format("delete from %s where %s in (%s)", table, idColumn, idReplacers);
-        Object[] args = ids.toArray();
+        return parseDeleteIn(ids, entityClass, null);
+    }
+
+    /**
+     * 解析删除语句, 主键个数填充到2的幂以复用语句
+     */
+    public static PreparedSql parseDeleteIn(Collection<?> ids, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        Object[] args = InnerUtils.padInArgs(ids);
+        String sql = entityInfo.getDeleteByIdsSql(args.length, SNAKE);
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析删除语句, 多个主键绑定为单个数组参数
+     *
+     * @return 方言不支持该主键类型的数组绑定时返回null
+     */
+    public static PreparedSql parseDelete(Collection<?> ids, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getDeleteByIdsArraySql(dialect, SNAKE);
+        if (sql == null) {
+            return null;
+        }
+        Object[] args = {new SqlArrayValue(entityInfo.getIdArrayTypeName(dialect), ids.toArray())};
         return new PreparedSql(sql, args);
     }
 
@@ -56,44 +128,271 @@ public class JdbcTemplateUtils {
      */
     public static PreparedSql parseUpdate(Object data) {
         EntityInfo<Object> entityInfo = getEntityInfo(data.getClass());
-        String table = entityInfo.getTableName(SNAKE);
-        String columns = entityInfo.getUpdateSetSqlSnippetSelective(data, SNAKE);
-        String idColumn = entityInfo.getIdColumnName(SNAKE);
+        Object[] fieldValues = entityInfo.getFieldValues(data);
+        String sql = entityInfo.getUpdateByIdSqlSelective(fieldValues, SNAKE);
+        List<Object> values = entityInfo.getColumnValuesSelective(data, fieldValues, false);
+        values.add(entityInfo.getIdValue(data));
+        return new PreparedSql(sql, values.toArray());
+    }
 
-        Object idValue = entityInfo.getIdValue(data);
-        List<Object> values = entityInfo.getColumnValuesExcludeIdSelective(data);
-        values.add(idValue);
+    /**
+     * 解析更新语句, 实体null参数不参与更新, 字段值只读取一次, 同时用于生成语句和绑定参数
+     */
+    public static BoundSql bindUpdate(Object data) {
+        return bindUpdate(data, (Dialect) null);
+    }
 
-        String sql = String.format("update %s set %s where %s = ?", table, columns, idColumn);
-        return new PreparedSql(sql, values.toArray());
+    /**
+     * 解析更新语句, 实体null参数不参与更新, 字段值只读取一次, 同时用于生成语句和绑定参数
+     */
+    public static BoundSql bindUpdate(Object data, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(data.getClass(), dialect);
+        Object[] fieldValues = entityInfo.getFieldValues(data);
+        String sql = entityInfo.getUpdateByIdSqlSelective(fieldValues, SNAKE);
+        return new BoundSql(sql, entityInfo, data, fieldValues, false, true);
+    }
+
+    /**
+     * 解析更新语句, 只更新字段掩码对应的列(包括null值), 执行时参数直接从实体绑定
+     *
+     * @see EntityInfo#getChangedFieldsMask(Object, Object[])
+     */
+    public static BoundSql bindUpdate(Object data, long fieldsMask) {
+        return bindUpdate(data, fieldsMask, null);
+    }
+
+    /**
+     * 解析更新语句, 只更新字段掩码对应的列(包括null值), 执行时参数直接从实体绑定
+     *
+     * @see EntityInfo#getChangedFieldsMask(Object, Object[])
+     */
+    public static BoundSql bindUpdate(Object data, long fieldsMask, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(data.getClass(), dialect);
+        String sql = entityInfo.getUpdateByIdSql(fieldsMask, SNAKE);
+        return new BoundSql(sql, entityInfo, data, fieldsMask);
+    }
+
+    /**
+     * 解析插入或更新语句(全部列), 执行时参数直接从实体绑定
+     */
+    public static BoundSql bindUpsert(Object data, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(data.getClass(), dialect);
+        String sql = entityInfo.getUpsertSql(dialect, SNAKE);
+        return new BoundSql(sql, entityInfo, data, false, true, false);
     }
 
     /**
      * 解析查询语句
      */
     public static PreparedSql parseFind(Object id, Class<?> entityClass) {
-        EntityInfo<Object> entityInfo = getEntityInfo(entityClass);
-        String table = entityInfo.getTableName(SNAKE);
-        String idColumn = entityInfo.getIdColumnName(SNAKE);
-        String columns = entityInfo.getInsertColumnsSqlSnippet(SNAKE);
+        return parseFind(id, entityClass, (Dialect) null);
+    }
 
-        String sql = String.format("select %s from %s where %s = ?", columns, table, idColumn);
+    /**
+     * 解析查询语句
+     */
+    public static PreparedSql parseFind(Object id, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getFindByIdSql(SNAKE);
         Object[] args = {id};
         return new PreparedSql(sql, args);
     }
 
     /**
-     * 解析查询语句
+     * 解析查询语句, 主键个数填充到2的幂以复用语句
      */
     public static PreparedSql parseFind(Collection<?> ids, Class<?> entityClass) {
-        EntityInfo<Object> entityInfo = getEntityInfo(entityClass);
-        String table = entityInfo.getTableName(SNAKE);
-        String idColumn = entityInfo.getIdColumnName(SNAKE);
-        String columns = entityInfo.getInsertColumnsSqlSnippet(SNAKE);
-        String idReplacers = InnerUtils.join(", ", InnerUtils.fillList("?", ids.size()));
-
-        String sql = String.format("select %s from %s where %s in (%s)", columns, table, idColumn, idReplacers);
-        Object[] args = ids.toArray();
+        return parseFindIn(ids, entityClass, null);
+    }
+
+    /**
+     * 解析查询语句, 主键个数填充到2的幂以复用语句
+     */
+    public static PreparedSql parseFindIn(Collection<?> ids, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        Object[] args = InnerUtils.padInArgs(ids);
+        String sql = entityInfo.getFindByIdsSql(args.length, SNAKE);
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析查询语句, 多个主键绑定为单个数组参数
+     *
+     * @return 方言不支持该主键类型的数组绑定时返回null
+     */
+    public static PreparedSql parseFind(Collection<?> ids, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getFindByIdsArraySql(dialect, SNAKE);
+        if (sql == null) {
+            return null;
+        }
+        Object[] args = {new SqlArrayValue(entityInfo.getIdArrayTypeName(dialect), ids.toArray())};
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析查询部分列的语句
+     *
+     * @param fields 字段名或列名
+     */
+    public static PreparedSql parseFind(Object id, Class<?> entityClass, String[] fields) {
+        return parseFind(id, entityClass, fields, null);
+    }
+
+    /**
+     * 解析查询部分列的语句
+     *
+     * @param fields 字段名或列名
+     */
+    public static PreparedSql parseFind(Object id, Class<?> entityClass, String[] fields, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getFindByIdSql(fields, SNAKE);
+        Object[] args = {id};
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析根据多个主键查询部分列的语句, 主键个数填充到2的幂以复用语句
+     *
+     * @param fields 字段名或列名
+     */
+    public static PreparedSql parseFind(Collection<?> ids, Class<?> entityClass, String[] fields) {
+        return parseFind(ids, entityClass, fields, null);
+    }
+
+    /**
+     * 解析根据多个主键查询部分列的语句, 主键个数填充到2的幂以复用语句
+     *
+     * @param fields 字段名或列名
+     */
+    public static PreparedSql parseFind(Collection<?> ids, Class<?> entityClass, String[] fields, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        Object[] args = InnerUtils.padInArgs(ids);
+        String sql = entityInfo.getFindByIdsSql(fields, args.length, SNAKE);
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析结果类型对应的查询字段, 即结果类型的全部列
+     */
+    public static String[] parseProjectionFields(Class<?> resultClass) {
+        EntityInfo<?> resultInfo = EntityInfo.newInstance(resultClass, false);
+        return resultInfo.getColumnNames(SNAKE).toArray(new String[0]);
+    }
+
+    /**
+     * 解析查询映射类, 结果类型不要求有主键
+     */
+    public static <T> RowMapper<T> parseProjectionRowMapper(Class<T> resultClass) {
+        EntityInfo<T> resultInfo = EntityInfo.newInstance(resultClass, false);
+        return new EntityRowMapper<>(resultInfo, SNAKE);
+    }
+
+    /**
+     * 解析判断主键是否存在的语句
+     */
+    public static PreparedSql parseExists(Object id, Class<?> entityClass) {
+        return parseExists(id, entityClass, null);
+    }
+
+    /**
+     * 解析判断主键是否存在的语句
+     */
+    public static PreparedSql parseExists(Object id, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getExistsByIdSql(SNAKE);
+        Object[] args = {id};
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析查询已存在主键的语句, 主键个数填充到2的幂以复用语句
+     */
+    public static PreparedSql parseFindIds(Collection<?> ids, Class<?> entityClass) {
+        return parseFindIdsIn(ids, entityClass, null);
+    }
+
+    /**
+     * 解析查询已存在主键的语句, 主键个数填充到2的幂以复用语句
+     */
+    public static PreparedSql parseFindIdsIn(Collection<?> ids, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        Object[] args = InnerUtils.padInArgs(ids);
+        String sql = entityInfo.getFindIdsByIdsSql(args.length, SNAKE);
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析查询已存在主键的语句, 多个主键绑定为单个数组参数
+     *
+     * @return 方言不支持该主键类型的数组绑定时返回null
+     */
+    public static PreparedSql parseFindIds(Collection<?> ids, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getFindIdsByIdsArraySql(dialect, SNAKE);
+        if (sql == null) {
+            return null;
+        }
+        Object[] args = {new SqlArrayValue(entityInfo.getIdArrayTypeName(dialect), ids.toArray())};
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析统计全部行数的语句
+     */
+    public static PreparedSql parseCount(Class<?> entityClass) {
+        return parseCount(entityClass, null);
+    }
+
+    /**
+     * 解析统计全部行数的语句
+     */
+    public static PreparedSql parseCount(Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        return new PreparedSql(entityInfo.getCountSql(SNAKE), new Object[0]);
+    }
+
+    /**
+     * 解析统计多个主键对应行数的语句, 主键个数填充到2的幂以复用语句
+     */
+    public static PreparedSql parseCount(Collection<?> ids, Class<?> entityClass) {
+        return parseCountIn(ids, entityClass, null);
+    }
+
+    /**
+     * 解析统计多个主键对应行数的语句, 主键个数填充到2的幂以复用语句
+     */
+    public static PreparedSql parseCountIn(Collection<?> ids, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        Object[] args = InnerUtils.padInArgs(ids);
+        String sql = entityInfo.getCountByIdsSql(args.length, SNAKE);
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析统计多个主键对应行数的语句, 多个主键绑定为单个数组参数
+     *
+     * @return 方言不支持该主键类型的数组绑定时返回null
+     */
+    public static PreparedSql parseCount(Collection<?> ids, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getCountByIdsArraySql(dialect, SNAKE);
+        if (sql == null) {
+            return null;
+        }
+        Object[] args = {new SqlArrayValue(entityInfo.getIdArrayTypeName(dialect), ids.toArray())};
+        return new PreparedSql(sql, args);
+    }
+
+    /**
+     * 解析按主键顺序分页查询语句
+     *
+     * @param lastId 上一页最后一条数据的主键, 为null时查询第一页
+     */
+    public static PreparedSql parseFindPage(Object lastId, int size, Class<?> entityClass, Dialect dialect) {
+        EntityInfo<Object> entityInfo = getEntityInfo(entityClass, dialect);
+        String sql = entityInfo.getFindPageSql(dialect, lastId != null, SNAKE);
+        Object[] args = (lastId != null) ? new Object[]{lastId, size} : new Object[]{size};
         return new PreparedSql(sql, args);
     }
 
@@ -105,6 +404,16 @@ public class JdbcTemplateUtils {
         return new EntityRowMapper<>(entityInfo, SNAKE);
     }
 
+    /**
+     * 解析查询映射类, 映射得到的实体记录快照
+     *
+     * @param dirtyTracker 为null时不记录快照
+     */
+    public static <T> RowMapper<T> parseRowMapper(Class<T> entityClass, DirtyTracker dirtyTracker) {
+        EntityInfo<T> entityInfo = getEntityInfo(entityClass);
+        return new EntityRowMapper<>(entityInfo, SNAKE, dirtyTracker);
+    }
+
     /**
      * 解析获得实体类信息
      */
@@ -112,7 +421,20 @@ public class JdbcTemplateUtils {
         return EntityInfo.newInstance(entityClass);
     }
 
+    /**
+     * 预热实体类, 没有主键的类(例如DTO)只预热映射信息
+     *
+     * @see EntityInfo#warmUp(Dialect, int, boolean)
+     */
+    public static void warmUp(Class<?> entityClass, Dialect dialect, int maxInListSize) {
+        EntityInfo.newInstance(entityClass, false).forDialect(dialect).warmUp(dialect, maxInListSize, SNAKE);
+    }
+
     private static <T> EntityInfo<T> getEntityInfo(Class entityClass) {
         return EntityInfo.newInstance(entityClass);
     }
+
+    private static <T> EntityInfo<T> getEntityInfo(Class entityClass, Dialect dialect) {
+        return EntityInfo.<T>newInstance(entityClass).forDialect(dialect);
+    }
 }
@@ -0,0 +1,117 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的延迟直方图, 按对数线性分桶(与HdrHistogram类似), 相对误差不超过1/16.
+ * <p>
+ * 小于32的值每个值一个桶, 之后每个2的幂区间平均分为16个桶, 覆盖全部非负long值, 占用约8KB.
+ * 记录只有原子自增, 读取统计值时不阻塞记录, 但不保证多个统计值之间的一致性.
+ *
+ * @thread 线程安全的.
+ * @see OperationRecorder
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BITS = 5;
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - LINEAR_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一个值, 负数按0记录
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return (n == 0) ? 0.0 : (double) sum.get() / n;
+    }
+
+    /**
+     * 获得百分位数的近似值, 返回所在桶的中间值(不超过最大值)
+     *
+     * @param percentile 百分位, 取值范围[0, 100]
+     */
+    public long getValueAtPercentile(double percentile) {
+        InnerUtils.assertArgument(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lower = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram(count=" + getCount() + ", mean=" + (long) getMean()
+                + ", p50=" + getValueAtPercentile(50) + ", p99=" + getValueAtPercentile(99)
+                + ", max=" + getMax() + ")";
+    }
+}
@@ -0,0 +1,256 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+
+/**
+ * 基于{@link MethodHandle}的字段访问器.
+ * <p>
+ * 构造时预先生成各基本类型签名的MethodHandle, getXxx/setXxx读写时不产生装箱对象, 也不再做签名转换;
+ * 字段类型无法转换为对应基本类型时抛出{@link IllegalArgumentException}.
+ * <p>
+ * MethodHandle保存在实例字段中, JDK 7/8的JIT不会将其作为常量折叠内联, 性能未必优于反射,
+ * 使用前请参考benchmarks中的FieldAccessorBenchmark.
+ */
+public class MethodHandleFieldAccessor implements FieldAccessor {
+
+    public static final Factory FACTORY = new Factory() {
+        @Override
+        public FieldAccessor create(Field field) {
+            return new MethodHandleFieldAccessor(field);
+        }
+    };
+
+    private static final Class<?>[] PRIMITIVE_TYPES = {boolean.class, byte.class, short.class, int.class,
+            long.class, float.class, double.class};
+    private static final int BOOLEAN = 0;
+    private static final int BYTE = 1;
+    private static final int SHORT = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int FLOAT = 5;
+    private static final int DOUBLE = 6;
+
+    private final Field field;
+    /**
+     * 通用签名: (Object)Object, (Object, Object)void
+     */
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    /**
+     * 基本类型签名: (Object)PrimitiveType, (Object, PrimitiveType)void, 按{@link #PRIMITIVE_TYPES}下标存放,
+     * 字段类型不能按拓宽/拆箱规则转换时为null
+     */
+    private final MethodHandle[] primitiveGetters = new MethodHandle[PRIMITIVE_TYPES.length];
+    private final MethodHandle[] primitiveSetters = new MethodHandle[PRIMITIVE_TYPES.length];
+
+    public MethodHandleFieldAccessor(Field field) {
+        this.field = field;
+        MethodHandle rawGetter;
+        MethodHandle rawSetter;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            rawGetter = lookup.unreflectGetter(field);
+            rawSetter = lookup.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable access field: " + field, e);
+        }
+        this.getter = rawGetter.asType(MethodType.methodType(Object.class, Object.class));
+        this.setter = rawSetter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        for (int i = 0; i < PRIMITIVE_TYPES.length; i++) {
+            Class<?> primitiveType = PRIMITIVE_TYPES[i];
+            primitiveGetters[i] = asType(rawGetter, MethodType.methodType(primitiveType, Object.class));
+            primitiveSetters[i] = asType(rawSetter, MethodType.methodType(void.class, Object.class, primitiveType));
+        }
+    }
+
+    @Override
+    public Object get(Object obj) {
+        try {
+            return (Object) getter.invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void set(Object obj, Object value) {
+        try {
+            setter.invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Object obj) {
+        try {
+            return (boolean) getter(BOOLEAN).invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void setBoolean(Object obj, boolean value) {
+        try {
+            setter(BOOLEAN).invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public byte getByte(Object obj) {
+        try {
+            return (byte) getter(BYTE).invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void setByte(Object obj, byte value) {
+        try {
+            setter(BYTE).invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public short getShort(Object obj) {
+        try {
+            return (short) getter(SHORT).invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void setShort(Object obj, short value) {
+        try {
+            setter(SHORT).invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public int getInt(Object obj) {
+        try {
+            return (int) getter(INT).invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void setInt(Object obj, int value) {
+        try {
+            setter(INT).invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public long getLong(Object obj) {
+        try {
+            return (long) getter(LONG).invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void setLong(Object obj, long value) {
+        try {
+            setter(LONG).invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public float getFloat(Object obj) {
+        try {
+            return (float) getter(FLOAT).invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void setFloat(Object obj, float value) {
+        try {
+            setter(FLOAT).invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public double getDouble(Object obj) {
+        try {
+            return (double) getter(DOUBLE).invokeExact(obj);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void setDouble(Object obj, double value) {
+        try {
+            setter(DOUBLE).invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * 获得预先生成的基本类型签名getter
+     */
+    private MethodHandle getter(int primitiveIndex) {
+        MethodHandle handle = primitiveGetters[primitiveIndex];
+        if (handle == null) {
+            throw new IllegalArgumentException("Can not get " + PRIMITIVE_TYPES[primitiveIndex] + " field " + field);
+        }
+        return handle;
+    }
+
+    /**
+     * 获得预先生成的基本类型签名setter
+     */
+    private MethodHandle setter(int primitiveIndex) {
+        MethodHandle handle = primitiveSetters[primitiveIndex];
+        if (handle == null) {
+            throw new IllegalArgumentException("Can not set " + PRIMITIVE_TYPES[primitiveIndex] + " field " + field);
+        }
+        return handle;
+    }
+
+    /**
+     * 转换签名, 字段类型不能按拓宽/拆箱规则转换时返回null
+     */
+    private static MethodHandle asType(MethodHandle handle, MethodType type) {
+        try {
+            return handle.asType(type);
+        } catch (WrongMethodTypeException e) {
+            return null;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new IllegalStateException(e);
+    }
+}
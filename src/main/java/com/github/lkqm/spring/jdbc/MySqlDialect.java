@@ -0,0 +1,81 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * MySQL/MariaDB方言, 多行插入可以返回全部自增主键.
+ */
+public class MySqlDialect extends StandardDialect {
+
+    public static final MySqlDialect INSTANCE = new MySqlDialect();
+
+    @Override
+    public boolean supports(DatabaseMetaData metaData) throws SQLException {
+        return isProduct(metaData, "MySQL", "MariaDB");
+    }
+
+    /**
+     * 例如: `order`, `userName`
+     */
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return quoteIdentifier(identifier, '`');
+    }
+
+    /**
+     * 例如: select * from t limit ?
+     */
+    @Override
+    public String getLimitSql(String sql) {
+        return sql + " limit ?";
+    }
+
+    /**
+     * 预编译语句最多65535个参数
+     */
+    @Override
+    public int getMaxBindParameters() {
+        return 65535;
+    }
+
+    /**
+     * 行数只受参数数量和max_allowed_packet限制
+     */
+    @Override
+    public int getMaxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean supportsMultiValuesGeneratedKeys() {
+        return true;
+    }
+
+    /**
+     * 例如: insert into t(id, name) values(?, ?) on duplicate key update name = values(name)
+     */
+    @Override
+    public String getUpsertSql(String table, String idColumn, List<String> columns) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("insert into ").append(table).append('(').append(InnerUtils.join(", ", columns))
+                .append(") values(").append(InnerUtils.join(", ", InnerUtils.fillList("?", columns.size())))
+                .append(") on duplicate key update ");
+        boolean first = true;
+        for (String column : columns) {
+            if (column.equals(idColumn)) {
+                continue;
+            }
+            if (!first) {
+                sb.append(", ");
+            }
+            sb.append(column).append(" = values(").append(column).append(')');
+            first = false;
+        }
+        if (first) {
+            sb.append(idColumn).append(" = ").append(idColumn);
+        }
+        return sb.toString();
+    }
+}
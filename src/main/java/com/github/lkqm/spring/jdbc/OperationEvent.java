@@ -0,0 +1,154 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * 一次操作的统计信息, 耗时单位为纳秒.
+ * <ul>
+ * <li>buildNanos: 生成SQL和绑定参数对象的耗时</li>
+ * <li>executeNanos: 执行语句和读取结果的耗时, 不包括映射实体</li>
+ * <li>mapNanos: 将结果行映射为实体的耗时</li>
+ * </ul>
+ * 操作拆分为多条语句执行时(例如主键数量超过in列表上限), 耗时和行数为所有语句之和, sql为第一条语句.
+ *
+ * @see OperationListener
+ */
+@Getter
+@ToString(exclude = {"argsSource", "mark"})
+public class OperationEvent {
+
+    private final OperationType type;
+    private final Class<?> entityClass;
+    /**
+     * 是否为批量方法, 例如insertAll, findByIds
+     */
+    private final boolean batch;
+    /**
+     * 语句模板, 参数为占位符
+     */
+    private String sql;
+    /**
+     * 第一条语句的参数, Object[]或BoundSql, 需要时才从实体中读取
+     */
+    @Getter(AccessLevel.NONE)
+    private Object argsSource;
+    /**
+     * 执行的语句条数
+     */
+    private int statements;
+    private long buildNanos;
+    private long executeNanos;
+    private long mapNanos;
+    /**
+     * 写操作为影响的行数(批处理无法获得具体行数时按1计算), 读操作为查询到的行数
+     */
+    private long rows;
+    /**
+     * 操作失败时的异常, 成功时为null
+     */
+    private Throwable exception;
+
+    /**
+     * 上一个阶段结束的时间
+     */
+    private long mark;
+
+    OperationEvent(OperationType type, Class<?> entityClass, boolean batch) {
+        this.type = type;
+        this.entityClass = entityClass;
+        this.batch = batch;
+        this.mark = System.nanoTime();
+    }
+
+    public long getTotalNanos() {
+        return buildNanos + executeNanos + mapNanos;
+    }
+
+    public boolean isFailed() {
+        return exception != null;
+    }
+
+    /**
+     * 获得第一条语句的参数值
+     */
+    public Object[] getArgs() {
+        if (argsSource instanceof BoundSql) {
+            return ((BoundSql) argsSource).getArgs();
+        }
+        if (argsSource instanceof PreparedSql) {
+            return ((PreparedSql) argsSource).getArgs();
+        }
+        return (argsSource != null) ? (Object[]) argsSource : new Object[0];
+    }
+
+    /**
+     * 获得第一条语句参数对应的列名, 参数只有主键时(例如findByIds)返回null
+     */
+    public List<String> getArgNames() {
+        if (argsSource instanceof BoundSql) {
+            return ((BoundSql) argsSource).getArgNames();
+        }
+        return (argsSource instanceof PreparedSql) ? ((PreparedSql) argsSource).getArgNames() : null;
+    }
+
+    /**
+     * 一条语句生成完毕, 自上一个阶段结束的时间计入生成耗时
+     */
+    void built(String sql, Object args) {
+        long now = System.nanoTime();
+        buildNanos += now - mark;
+        mark = now;
+        if (this.sql == null) {
+            this.sql = sql;
+            this.argsSource = args;
+        }
+        statements++;
+    }
+
+    /**
+     * 一条或一批语句执行完毕, 自上一个阶段结束的时间计入执行耗时(映射耗时在结束时扣除)
+     */
+    void executed(long rows) {
+        long now = System.nanoTime();
+        executeNanos += now - mark;
+        mark = now;
+        this.rows += rows;
+    }
+
+    /**
+     * 操作失败, 自上一个阶段结束的时间计入执行耗时
+     */
+    void failed(Throwable exception) {
+        long now = System.nanoTime();
+        executeNanos += now - mark;
+        mark = now;
+        this.exception = exception;
+    }
+
+    void finish() {
+        executeNanos = Math.max(0L, executeNanos - mapNanos);
+    }
+
+    /**
+     * 包装行映射器统计映射耗时
+     */
+    <T> RowMapper<T> timing(final RowMapper<T> rowMapper) {
+        return new RowMapper<T>() {
+            @Override
+            public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+                long start = System.nanoTime();
+                try {
+                    return rowMapper.mapRow(rs, rowNum);
+                } finally {
+                    mapNanos += System.nanoTime() - start;
+                }
+            }
+        };
+    }
+}
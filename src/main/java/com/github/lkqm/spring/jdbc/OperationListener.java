@@ -0,0 +1,18 @@
+package com.github.lkqm.spring.jdbc;
+
+/**
+ * JdbcTemplatePlus操作监听器, 每次增删改查(包括批量操作)结束后调用一次, 无论成功或失败.
+ * <p>
+ * 在执行操作的线程上同步调用, 实现应当快速返回; 抛出的异常会被记录日志并忽略, 不影响操作结果.
+ * 未注册任何监听器时不会创建事件也不会计时.
+ *
+ * @see JdbcTemplatePlus#addOperationListener(OperationListener)
+ * @see OperationRecorder
+ */
+public interface OperationListener {
+
+    /**
+     * 操作结束, 包括操作失败
+     */
+    void onOperation(OperationEvent event);
+}
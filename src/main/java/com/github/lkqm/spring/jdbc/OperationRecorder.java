@@ -0,0 +1,123 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.Getter;
+
+/**
+ * 内置的操作统计, 按实体类型和操作类型记录延迟直方图、行数和失败次数, 用于在应用内找出慢表.
+ * <p>
+ * 记录时只有原子操作, 不加锁.
+ *
+ * @thread 线程安全的.
+ * @see JdbcTemplatePlus#addOperationListener(OperationListener)
+ */
+public class OperationRecorder implements OperationListener {
+
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private final ConcurrentMap<Class<?>, AtomicReferenceArray<Stats>> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public void onOperation(OperationEvent event) {
+        if (event.getEntityClass() == null) {
+            return;
+        }
+        Stats s = getOrCreateStats(event.getEntityClass(), event.getType());
+        s.record(event);
+    }
+
+    /**
+     * 获得统计信息
+     *
+     * @return 没有记录时返回null
+     */
+    public Stats getStats(Class<?> entityClass, OperationType type) {
+        AtomicReferenceArray<Stats> array = stats.get(entityClass);
+        return (array != null) ? array.get(type.ordinal()) : null;
+    }
+
+    /**
+     * 获得全部统计信息
+     */
+    public List<Stats> getAllStats() {
+        List<Stats> results = new ArrayList<>();
+        for (Map.Entry<Class<?>, AtomicReferenceArray<Stats>> entry : stats.entrySet()) {
+            AtomicReferenceArray<Stats> array = entry.getValue();
+            for (int i = 0; i < array.length(); i++) {
+                if (array.get(i) != null) {
+                    results.add(array.get(i));
+                }
+            }
+        }
+        return results;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private Stats getOrCreateStats(Class<?> entityClass, OperationType type) {
+        AtomicReferenceArray<Stats> array = stats.get(entityClass);
+        if (array == null) {
+            AtomicReferenceArray<Stats> newArray = new AtomicReferenceArray<>(TYPES.length);
+            array = stats.putIfAbsent(entityClass, newArray);
+            if (array == null) {
+                array = newArray;
+            }
+        }
+        int index = type.ordinal();
+        Stats s = array.get(index);
+        if (s == null) {
+            array.compareAndSet(index, null, new Stats(entityClass, type));
+            s = array.get(index);
+        }
+        return s;
+    }
+
+    /**
+     * 一个实体类型一种操作的统计, 耗时单位为纳秒
+     */
+    @Getter
+    public static class Stats {
+
+        private final Class<?> entityClass;
+        private final OperationType type;
+        /**
+         * 总耗时的直方图
+         */
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong buildNanos = new AtomicLong();
+        private final AtomicLong executeNanos = new AtomicLong();
+        private final AtomicLong mapNanos = new AtomicLong();
+
+        Stats(Class<?> entityClass, OperationType type) {
+            this.entityClass = entityClass;
+            this.type = type;
+        }
+
+        void record(OperationEvent event) {
+            latency.record(event.getTotalNanos());
+            rows.addAndGet(event.getRows());
+            buildNanos.addAndGet(event.getBuildNanos());
+            executeNanos.addAndGet(event.getExecuteNanos());
+            mapNanos.addAndGet(event.getMapNanos());
+            if (event.isFailed()) {
+                failures.incrementAndGet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Stats(entityClass=" + entityClass.getName() + ", type=" + type + ", latency=" + latency
+                    + ", rows=" + rows + ", failures=" + failures + ")";
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.lkqm.spring.jdbc;
+
+/**
+ * JdbcTemplatePlus的操作类型, 批量方法与单个方法属于同一类型, 通过{@link OperationEvent#isBatch()}区分.
+ *
+ * @see OperationListener
+ */
+public enum OperationType {
+
+    INSERT,
+    UPDATE,
+    UPSERT,
+    DELETE,
+    FIND,
+    EXISTS,
+    COUNT
+}
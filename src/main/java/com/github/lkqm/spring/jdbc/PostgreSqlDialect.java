@@ -0,0 +1,110 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * PostgreSQL方言.
+ * <ul>
+ * <li>按列名获取自增主键, 驱动生成returning id而不是returning *</li>
+ * <li>多行插入通过returning按顺序返回全部主键</li>
+ * <li>多个主键绑定为单个数组参数: id = any(?), 不同数量的主键使用同一条语句</li>
+ * </ul>
+ */
+public class PostgreSqlDialect extends StandardDialect {
+
+    public static final PostgreSqlDialect INSTANCE = new PostgreSqlDialect();
+
+    @Override
+    public boolean supports(DatabaseMetaData metaData) throws SQLException {
+        return isProduct(metaData, "PostgreSQL");
+    }
+
+    /**
+     * user在PostgreSQL中也是保留字
+     */
+    @Override
+    protected boolean isReservedWord(String word) {
+        return "user".equals(word) || super.isReservedWord(word);
+    }
+
+    /**
+     * 例如: select * from t limit ?
+     */
+    @Override
+    public String getLimitSql(String sql) {
+        return sql + " limit ?";
+    }
+
+    /**
+     * 驱动以short发送参数数量, 最多32767个参数
+     */
+    @Override
+    public int getMaxBindParameters() {
+        return 32767;
+    }
+
+    /**
+     * 行数只受参数数量限制
+     */
+    @Override
+    public int getMaxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean supportsMultiValuesGeneratedKeys() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsGeneratedKeyColumns() {
+        return true;
+    }
+
+    @Override
+    public String getArrayTypeName(ColumnType type) {
+        switch (type) {
+            case SHORT:
+                return "int2";
+            case INT:
+                return "int4";
+            case LONG:
+                return "int8";
+            case STRING:
+                return "varchar";
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String getInArraySql(String column) {
+        return column + " = any(?)";
+    }
+
+    /**
+     * 例如: insert into t(id, name) values(?, ?) on conflict (id) do update set name = excluded.name
+     */
+    @Override
+    public String getUpsertSql(String table, String idColumn, List<String> columns) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("insert into ").append(table).append('(').append(InnerUtils.join(", ", columns))
+                .append(") values(").append(InnerUtils.join(", ", InnerUtils.fillList("?", columns.size())))
+                .append(") on conflict (").append(idColumn).append(')');
+        boolean first = true;
+        for (String column : columns) {
+            if (column.equals(idColumn)) {
+                continue;
+            }
+            sb.append(first ? " do update set " : ", ");
+            sb.append(column).append(" = excluded.").append(column);
+            first = false;
+        }
+        if (first) {
+            sb.append(" do nothing");
+        }
+        return sb.toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.github.lkqm.spring.jdbc;
 
 import java.io.Serializable;
 import java.sql.PreparedStatement;
+import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -10,8 +11,8 @@ import lombok.ToString;
  * 封装PreparedStatement执行参数.
  */
 @Getter
-@EqualsAndHashCode
-@ToString
+@EqualsAndHashCode(exclude = "argNames")
+@ToString(exclude = "argNames")
 public class PreparedSql implements Serializable {
 
     /**
@@ -24,8 +25,18 @@ public class PreparedSql implements Serializable {
      */
     protected final Object[] args;
 
+    /**
+     * 参数对应的列名, 用于日志等诊断, 参数只有主键时为null
+     */
+    protected final List<String> argNames;
+
     public PreparedSql(String sql, Object[] args) {
+        this(sql, args, null);
+    }
+
+    public PreparedSql(String sql, Object[] args, List<String> argNames) {
         this.sql = sql;
         this.args = args;
+        this.argNames = argNames;
     }
 }
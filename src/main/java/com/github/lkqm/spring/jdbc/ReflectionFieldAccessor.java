@@ -0,0 +1,180 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.lang.reflect.Field;
+
+/**
+ * 基于{@link Field}的字段访问器.
+ */
+public class ReflectionFieldAccessor implements FieldAccessor {
+
+    public static final Factory FACTORY = new Factory() {
+        @Override
+        public FieldAccessor create(Field field) {
+            return new ReflectionFieldAccessor(field);
+        }
+    };
+
+    private final Field field;
+
+    public ReflectionFieldAccessor(Field field) {
+        this.field = field;
+    }
+
+    /**
+     * 创建类中声明的特定字段的访问器, 用于编译期无法直接访问的字段(例如没有getter/setter的private字段)
+     */
+    public static ReflectionFieldAccessor of(Class<?> clazz, String fieldName) {
+        Field field;
+        try {
+            field = clazz.getDeclaredField(fieldName);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+        field.setAccessible(true);
+        return new ReflectionFieldAccessor(field);
+    }
+
+    @Override
+    public Object get(Object obj) {
+        try {
+            return field.get(obj);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public void set(Object obj, Object value) {
+        try {
+            field.set(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Object obj) {
+        try {
+            return field.getBoolean(obj);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public void setBoolean(Object obj, boolean value) {
+        try {
+            field.setBoolean(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public byte getByte(Object obj) {
+        try {
+            return field.getByte(obj);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public void setByte(Object obj, byte value) {
+        try {
+            field.setByte(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public short getShort(Object obj) {
+        try {
+            return field.getShort(obj);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public void setShort(Object obj, short value) {
+        try {
+            field.setShort(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public int getInt(Object obj) {
+        try {
+            return field.getInt(obj);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public void setInt(Object obj, int value) {
+        try {
+            field.setInt(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public long getLong(Object obj) {
+        try {
+            return field.getLong(obj);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public void setLong(Object obj, long value) {
+        try {
+            field.setLong(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public float getFloat(Object obj) {
+        try {
+            return field.getFloat(obj);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public void setFloat(Object obj, float value) {
+        try {
+            field.setFloat(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public double getDouble(Object obj) {
+        try {
+            return field.getDouble(obj);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+
+    @Override
+    public void setDouble(Object obj, double value) {
+        try {
+            field.setDouble(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Never happen!", e);
+        }
+    }
+}
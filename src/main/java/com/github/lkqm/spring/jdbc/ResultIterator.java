@@ -0,0 +1,119 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.sql.DataSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+/**
+ * 逐行读取查询结果的迭代器, 不会一次性加载全部结果.
+ * <p>
+ * 迭代器持有数据库连接, 读取完毕后自动关闭, 提前结束时必须调用{@link #close()}释放连接.
+ *
+ * @thread 非线程安全的.
+ * @see JdbcTemplatePlus#iterate(String, Class, Object...)
+ */
+public class ResultIterator<T> implements Iterator<T>, Closeable {
+
+    private final String sql;
+    private final ResultSet resultSet;
+    private final Statement statement;
+    private final Connection connection;
+    private final DataSource dataSource;
+    private final RowMapper<T> rowMapper;
+    private final SQLExceptionTranslator exceptionTranslator;
+
+    private int rowNum;
+    /**
+     * 是否已经移动到下一行且未被读取
+     */
+    private boolean fetched;
+    private boolean closed;
+
+    public ResultIterator(String sql, ResultSet resultSet, Statement statement, Connection connection,
+            DataSource dataSource, RowMapper<T> rowMapper, SQLExceptionTranslator exceptionTranslator) {
+        this.sql = sql;
+        this.resultSet = resultSet;
+        this.statement = statement;
+        this.connection = connection;
+        this.dataSource = dataSource;
+        this.rowMapper = rowMapper;
+        this.exceptionTranslator = exceptionTranslator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (fetched) {
+            return true;
+        }
+        try {
+            fetched = resultSet.next();
+        } catch (SQLException e) {
+            close();
+            throw translateException(e);
+        }
+        if (!fetched) {
+            close();
+        }
+        return fetched;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        try {
+            return rowMapper.mapRow(resultSet, rowNum++);
+        } catch (SQLException e) {
+            close();
+            throw translateException(e);
+        } catch (RuntimeException | Error e) {
+            // 映射失败(例如类型转换异常)时同样释放连接, 调用方通常不会再继续迭代
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    /**
+     * 关闭结果集并释放连接, 可重复调用
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        JdbcUtils.closeResultSet(resultSet);
+        JdbcUtils.closeStatement(statement);
+        DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private DataAccessException translateException(SQLException e) {
+        DataAccessException dae = exceptionTranslator.translate("ResultIterator", sql, e);
+        return (dae != null) ? dae : new UncategorizedSQLException("ResultIterator", sql, e);
+    }
+}
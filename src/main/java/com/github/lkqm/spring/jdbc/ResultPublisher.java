@@ -0,0 +1,160 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * 查询结果的Reactive Streams发布者, 按订阅者的请求数量逐行读取并映射为实体.
+ * <p>
+ * 每次订阅执行一次查询, 第一次请求时才获取连接; 没有请求时暂停读取, 内存占用由驱动的fetchSize决定;
+ * 读取完毕、出错或取消订阅时释放连接. 元素在调用request的线程上发出.
+ * <p>
+ * 订阅者的onNext抛出异常时视为取消订阅(Reactive Streams §2.13): 释放连接, 不再向该订阅者发出任何信号.
+ * <p>
+ * 需要依赖org.reactivestreams:reactive-streams.
+ *
+ * @see JdbcTemplatePlus#iterate(String, Class, Object...)
+ */
+public class ResultPublisher<T> implements Publisher<T> {
+
+    private final JdbcTemplatePlus jdbcTemplate;
+    private final String sql;
+    private final Class<T> entityClass;
+    private final Object[] args;
+
+    public ResultPublisher(JdbcTemplatePlus jdbcTemplate, String sql, Class<T> entityClass, Object... args) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = sql;
+        this.entityClass = entityClass;
+        this.args = args;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        subscriber.onSubscribe(new ResultSubscription<>(this, subscriber));
+    }
+
+    /**
+     * 订阅, request和cancel可以在任意线程调用, 通过wip计数保证同一时间只有一个线程读取和发出元素
+     */
+    private static class ResultSubscription<T> implements Subscription {
+
+        private final ResultPublisher<T> publisher;
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // 以下字段只在drain中访问
+        private ResultIterator<T> iterator;
+        private boolean done;
+
+        ResultSubscription(ResultPublisher<T> publisher, Subscriber<? super T> subscriber) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Request must be positive, but was " + n);
+            } else {
+                addRequested(n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void addRequested(long n) {
+            while (true) {
+                long current = requested.get();
+                long next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+                if (requested.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (invalidRequest != null) {
+                terminate();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            long demand = requested.get();
+            if (demand == 0) {
+                return;
+            }
+            long emitted = 0;
+            try {
+                if (iterator == null) {
+                    iterator = publisher.jdbcTemplate.iterate(publisher.sql, publisher.entityClass, publisher.args);
+                }
+                while (emitted != demand && !cancelled && iterator.hasNext()) {
+                    T next = iterator.next();
+                    try {
+                        subscriber.onNext(next);
+                    } catch (RuntimeException e) {
+                        // 订阅者违反规范, 视为取消, 不再调用onError
+                        cancelled = true;
+                        terminate();
+                        return;
+                    }
+                    emitted++;
+                }
+                if (cancelled) {
+                    terminate();
+                } else if (!iterator.hasNext()) {
+                    terminate();
+                    subscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                terminate();
+                subscriber.onError(e);
+                return;
+            }
+            if (demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            if (iterator != null) {
+                iterator.close();
+            }
+        }
+    }
+}
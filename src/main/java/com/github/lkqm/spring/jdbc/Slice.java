@@ -0,0 +1,53 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.util.Iterator;
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 按主键顺序查询的一页数据, 下一页从{@link #getLastId()}之后开始查询.
+ *
+ * @see JdbcTemplatePlus#findPageAfter(Object, int, Class)
+ */
+@Getter
+@ToString
+public class Slice<T> implements Iterable<T> {
+
+    /**
+     * 当前页数据, 按主键升序
+     */
+    private final List<T> content;
+
+    /**
+     * 每页最大条数
+     */
+    private final int size;
+
+    /**
+     * 当前页最后一条数据的主键, 当前页为空时为查询时传入的主键
+     */
+    private final Object lastId;
+
+    public Slice(List<T> content, int size, Object lastId) {
+        this.content = content;
+        this.size = size;
+        this.lastId = lastId;
+    }
+
+    /**
+     * 是否可能存在下一页, 当前页已满时返回true
+     */
+    public boolean hasNext() {
+        return !content.isEmpty() && content.size() >= size;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return content.iterator();
+    }
+}
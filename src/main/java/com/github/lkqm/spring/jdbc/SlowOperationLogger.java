@@ -0,0 +1,259 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * 慢操作日志, 记录耗时超过阈值的操作的SQL、参数、行数和耗时.
+ * <ul>
+ * <li>阈值可以按操作类型分别设置, 小于等于0表示不记录该类型</li>
+ * <li>按采样率和每秒最大条数限制日志量, 被丢弃的条数在下一条日志中输出</li>
+ * <li>参数个数和每个参数的长度都会截断, 指定的列(例如password)的值输出为******</li>
+ * </ul>
+ * 只有超过阈值的操作才会读取和格式化参数.
+ *
+ * @thread 线程安全的.
+ * @see JdbcTemplatePlus#enableSlowOperationLog(long, TimeUnit)
+ */
+public class SlowOperationLogger implements OperationListener {
+
+    private static final Log logger = LogFactory.getLog(SlowOperationLogger.class);
+
+    private static final String REDACTED = "******";
+
+    /**
+     * 各操作类型的阈值(纳秒)
+     */
+    private final AtomicLongArray thresholdNanos = new AtomicLongArray(OperationType.values().length);
+
+    /**
+     * 超过阈值的操作被记录的概率
+     */
+    @Getter
+    private volatile double sampleRate = 1.0;
+
+    /**
+     * 每秒最多记录的条数
+     */
+    @Getter
+    private volatile int maxLogsPerSecond = 10;
+
+    /**
+     * 最多输出的参数个数
+     */
+    @Getter
+    private volatile int maxArgs = 20;
+
+    /**
+     * 每个参数最多输出的字符数
+     */
+    @Getter
+    private volatile int maxArgLength = 100;
+
+    /**
+     * SQL最多输出的字符数
+     */
+    @Getter
+    private volatile int maxSqlLength = 1000;
+
+    /**
+     * 需要隐藏值的列名, 已规范化
+     */
+    private volatile Set<String> redactedColumns = Collections.emptySet();
+
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicLong logsInSecond = new AtomicLong();
+    private final AtomicLong slowCount = new AtomicLong();
+    private final AtomicLong suppressedCount = new AtomicLong();
+    /**
+     * 上一条日志之后被丢弃的条数
+     */
+    private final AtomicLong pendingSuppressed = new AtomicLong();
+
+    public SlowOperationLogger(long threshold, TimeUnit unit) {
+        setThreshold(threshold, unit);
+    }
+
+    /**
+     * 设置全部操作类型的阈值
+     */
+    public void setThreshold(long threshold, TimeUnit unit) {
+        for (OperationType type : OperationType.values()) {
+            setThreshold(type, threshold, unit);
+        }
+    }
+
+    /**
+     * 设置一种操作类型的阈值, 小于等于0表示不记录该类型
+     */
+    public void setThreshold(OperationType type, long threshold, TimeUnit unit) {
+        thresholdNanos.set(type.ordinal(), unit.toNanos(threshold));
+    }
+
+    public long getThreshold(OperationType type, TimeUnit unit) {
+        return unit.convert(thresholdNanos.get(type.ordinal()), TimeUnit.NANOSECONDS);
+    }
+
+    public void setSampleRate(double sampleRate) {
+        InnerUtils.assertArgument(sampleRate >= 0 && sampleRate <= 1, "Sample rate must be between 0 and 1");
+        this.sampleRate = sampleRate;
+    }
+
+    public void setMaxLogsPerSecond(int maxLogsPerSecond) {
+        InnerUtils.assertArgument(maxLogsPerSecond > 0, "Max logs per second must be positive");
+        this.maxLogsPerSecond = maxLogsPerSecond;
+    }
+
+    public void setMaxArgs(int maxArgs) {
+        InnerUtils.assertArgument(maxArgs >= 0, "Max args must not be negative");
+        this.maxArgs = maxArgs;
+    }
+
+    public void setMaxArgLength(int maxArgLength) {
+        InnerUtils.assertArgument(maxArgLength > 0, "Max arg length must be positive");
+        this.maxArgLength = maxArgLength;
+    }
+
+    public void setMaxSqlLength(int maxSqlLength) {
+        InnerUtils.assertArgument(maxSqlLength > 0, "Max sql length must be positive");
+        this.maxSqlLength = maxSqlLength;
+    }
+
+    /**
+     * 设置需要隐藏值的列, 列名或字段名均可, 忽略大小写和下划线
+     */
+    public void setRedactedColumns(String... columns) {
+        Set<String> normalized = new HashSet<>();
+        for (String column : columns) {
+            normalized.add(normalize(column));
+        }
+        this.redactedColumns = normalized;
+    }
+
+    /**
+     * 超过阈值的操作数, 包括被丢弃的
+     */
+    public long getSlowCount() {
+        return slowCount.get();
+    }
+
+    /**
+     * 因采样或限流被丢弃的操作数
+     */
+    public long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+
+    @Override
+    public void onOperation(OperationEvent event) {
+        long threshold = thresholdNanos.get(event.getType().ordinal());
+        if (threshold <= 0 || event.getTotalNanos() < threshold) {
+            return;
+        }
+        slowCount.incrementAndGet();
+        if (!sampled() || !acquire()) {
+            suppressedCount.incrementAndGet();
+            pendingSuppressed.incrementAndGet();
+            return;
+        }
+        log(event, format(event, pendingSuppressed.getAndSet(0)));
+    }
+
+    /**
+     * 输出日志, 默认为WARN级别
+     */
+    protected void log(OperationEvent event, String message) {
+        logger.warn(message);
+    }
+
+    private boolean sampled() {
+        double rate = sampleRate;
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * 按秒计数限流
+     */
+    private boolean acquire() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = currentSecond.get();
+        if (second != current && currentSecond.compareAndSet(current, second)) {
+            logsInSecond.set(0);
+        }
+        return logsInSecond.incrementAndGet() <= maxLogsPerSecond;
+    }
+
+    String format(OperationEvent event, long suppressed) {
+        StringBuilder sb = new StringBuilder("Slow operation: ");
+        sb.append(event.getType());
+        if (event.isBatch()) {
+            sb.append(" (batch)");
+        }
+        if (event.getEntityClass() != null) {
+            sb.append(' ').append(event.getEntityClass().getSimpleName());
+        }
+        sb.append(", elapsed=").append(TimeUnit.NANOSECONDS.toMillis(event.getTotalNanos())).append("ms")
+                .append(" (build=").append(TimeUnit.NANOSECONDS.toMillis(event.getBuildNanos()))
+                .append("ms, execute=").append(TimeUnit.NANOSECONDS.toMillis(event.getExecuteNanos()))
+                .append("ms, map=").append(TimeUnit.NANOSECONDS.toMillis(event.getMapNanos())).append("ms)")
+                .append(", rows=").append(event.getRows())
+                .append(", statements=").append(event.getStatements());
+        if (event.isFailed()) {
+            sb.append(", failed=").append(event.getException().getClass().getSimpleName());
+        }
+        sb.append(", sql=").append(truncate(event.getSql(), maxSqlLength));
+        sb.append(", args=");
+        appendArgs(sb, event.getArgs(), event.getArgNames());
+        if (suppressed > 0) {
+            sb.append(", suppressed=").append(suppressed);
+        }
+        return sb.toString();
+    }
+
+    private void appendArgs(StringBuilder sb, Object[] args, List<String> names) {
+        int limit = maxArgs;
+        Set<String> redacted = this.redactedColumns;
+        sb.append('[');
+        for (int i = 0; i < args.length && i < limit; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            String name = (names != null && i < names.size()) ? names.get(i) : null;
+            if (name != null) {
+                sb.append(name).append('=');
+            }
+            if (name != null && redacted.contains(normalize(name))) {
+                sb.append(REDACTED);
+            } else if (args[i] instanceof SqlArrayValue) {
+                appendArgs(sb, ((SqlArrayValue) args[i]).getElements(), null);
+            } else {
+                sb.append(truncate(String.valueOf(args[i]), maxArgLength));
+            }
+        }
+        if (args.length > limit) {
+            sb.append(limit > 0 ? ", " : "").append("...(").append(args.length).append(" args)");
+        }
+        sb.append(']');
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength) + "...(" + value.length() + " chars)";
+    }
+
+    private static String normalize(String column) {
+        return column.replace("_", "").toLowerCase(Locale.ENGLISH);
+    }
+}
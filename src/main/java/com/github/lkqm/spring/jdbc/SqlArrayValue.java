@@ -0,0 +1,30 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+
+/**
+ * 数组参数, 绑定时通过Connection#createArrayOf创建
+ *
+ * @see Dialect#getInArraySql(String)
+ */
+class SqlArrayValue extends AbstractSqlTypeValue {
+
+    private final String elementTypeName;
+    private final Object[] elements;
+
+    SqlArrayValue(String elementTypeName, Object[] elements) {
+        this.elementTypeName = elementTypeName;
+        this.elements = elements;
+    }
+
+    Object[] getElements() {
+        return elements;
+    }
+
+    @Override
+    protected Object createTypeValue(Connection con, int sqlType, String typeName) throws SQLException {
+        return con.createArrayOf(elementTypeName, elements);
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.lkqm.spring.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 标准SQL方言, 未检测到具体数据库时使用, 也是内置方言的基类.
+ */
+public class StandardDialect implements Dialect {
+
+    public static final StandardDialect INSTANCE = new StandardDialect();
+
+    /**
+     * 常用作表名或列名的保留字(小写)
+     */
+    private static final Set<String> RESERVED_WORDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "all", "and", "as", "asc", "between", "by", "case", "check", "column", "constraint", "create", "cross",
+            "default", "delete", "desc", "distinct", "drop", "else", "exists", "false", "for", "foreign", "from",
+            "full", "group", "having", "in", "inner", "insert", "intersect", "into", "is", "join", "left", "like",
+            "limit", "not", "null", "on", "or", "order", "primary", "references", "right", "select", "set", "table",
+            "then", "to", "true", "union", "unique", "update", "using", "values", "when", "where", "with")));
+
+    @Override
+    public boolean supports(DatabaseMetaData metaData) throws SQLException {
+        return true;
+    }
+
+    /**
+     * 例如: "order", "userName"; 带schema的名称分别引用每一部分
+     */
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return quoteIdentifier(identifier, '"');
+    }
+
+    /**
+     * 例如: select * from t fetch first ? rows only
+     */
+    @Override
+    public String getLimitSql(String sql) {
+        return sql + " fetch first ? rows only";
+    }
+
+    @Override
+    public boolean supportsMultiValuesInsert() {
+        return true;
+    }
+
+    /**
+     * 未知数据库使用保守值, 例如SQL Server最多2100个参数
+     */
+    @Override
+    public int getMaxBindParameters() {
+        return 2000;
+    }
+
+    /**
+     * 未知数据库使用保守值, 例如SQL Server的values最多1000行
+     */
+    @Override
+    public int getMaxInsertRows() {
+        return 1000;
+    }
+
+    @Override
+    public boolean supportsMultiValuesGeneratedKeys() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsGeneratedKeyColumns() {
+        return false;
+    }
+
+    @Override
+    public String getArrayTypeName(ColumnType type) {
+        return null;
+    }
+
+    @Override
+    public String getInArraySql(String column) {
+        return null;
+    }
+
+    /**
+     * 例如: merge into t using (values(?, ?)) s(id, name) on t.id = s.id when matched then update set name = s.name
+     * when not matched then insert(id, name) values(s.id, s.name)
+     */
+    @Override
+    public String getUpsertSql(String table, String idColumn, List<String> columns) {
+        StringBuilder sb = new StringBuilder();
+        String columnsSnippet = InnerUtils.join(", ", columns);
+        sb.append("merge into ").append(table).append(" t using (values(")
+                .append(InnerUtils.join(", ", InnerUtils.fillList("?", columns.size()))).append(")) s(")
+                .append(columnsSnippet).append(") on t.").append(idColumn).append(" = s.").append(idColumn);
+        boolean first = true;
+        for (String column : columns) {
+            if (column.equals(idColumn)) {
+                continue;
+            }
+            sb.append(first ? " when matched then update set " : ", ");
+            sb.append(column).append(" = s.").append(column);
+            first = false;
+        }
+        sb.append(" when not matched then insert(").append(columnsSnippet).append(") values(");
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append(i == 0 ? "s." : ", s.").append(columns.get(i));
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * 使用引号引用保留字或大小写混合的名称, 名称中的引号重复转义
+     */
+    protected String quoteIdentifier(String identifier, char quote) {
+        int dot = identifier.indexOf('.');
+        if (dot >= 0) {
+            return quoteIdentifier(identifier.substring(0, dot), quote) + '.'
+                    + quoteIdentifier(identifier.substring(dot + 1), quote);
+        }
+        if (!isQuoteRequired(identifier)) {
+            return identifier;
+        }
+        String escaped = identifier.replace(String.valueOf(quote), String.valueOf(quote) + quote);
+        return quote + escaped + quote;
+    }
+
+    /**
+     * 是否需要引用: 保留字、大小写混合或者包含字母、数字、下划线以外的字符
+     */
+    protected boolean isQuoteRequired(String identifier) {
+        if (isReservedWord(identifier.toLowerCase())) {
+            return true;
+        }
+        boolean lower = false;
+        boolean upper = false;
+        for (int i = 0; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            if (Character.isLowerCase(c)) {
+                lower = true;
+            } else if (Character.isUpperCase(c)) {
+                upper = true;
+            } else if (c != '_' && !Character.isDigit(c)) {
+                return true;
+            }
+        }
+        return lower && upper;
+    }
+
+    /**
+     * 是否保留字
+     *
+     * @param word 小写名称
+     */
+    protected boolean isReservedWord(String word) {
+        return RESERVED_WORDS.contains(word);
+    }
+
+    /**
+     * 数据库产品名称是否包含任一名称
+     */
+    protected static boolean isProduct(DatabaseMetaData metaData, String... names) throws SQLException {
+        String product = metaData.getDatabaseProductName();
+        if (product != null) {
+            for (String name : names) {
+                if (product.contains(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.lkqm.spring.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+class AsyncJdbcTemplatePlusTest {
+
+    private JdbcTemplatePlus jdbcTemplate;
+    private AsyncJdbcTemplatePlus asyncJdbcTemplate;
+
+    @BeforeEach
+    public void before() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setUrl("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;MODE=MYSQL");
+        jdbcTemplate = new JdbcTemplatePlus(dataSource);
+        jdbcTemplate.execute("create table user( id int auto_increment primary key, name varchar(255) )");
+        asyncJdbcTemplate = new AsyncJdbcTemplatePlus(jdbcTemplate, 2);
+    }
+
+    @AfterEach
+    public void after() {
+        asyncJdbcTemplate.destroy();
+        jdbcTemplate.execute("drop table user");
+    }
+
+    @Test
+    void crud() throws Exception {
+        int[] rows = asyncJdbcTemplate.insertAll(Arrays.asList(new User(1, "LW"), new User(2, "LW"))).get();
+        assertArrayEquals(new int[]{1, 1}, rows);
+        assertEquals(1, (int) asyncJdbcTemplate.updateById(new User(1, "EGM")).get());
+        assertEquals("EGM", asyncJdbcTemplate.findById(1, User.class).get().name);
+        assertEquals(2, asyncJdbcTemplate.findByIds(Arrays.asList(1, 2), User.class).get().size());
+        assertEquals(2, (int) asyncJdbcTemplate.deleteByIds(Arrays.asList(1, 2), User.class).get());
+
+        // 测试: 异常通过future传递
+        ExecutionException e = assertThrows(ExecutionException.class, new Executable() {
+            @Override
+            public void execute() throws Throwable {
+                asyncJdbcTemplate.findById(1, User.class).get();
+            }
+        });
+        assertTrue(e.getCause() instanceof EmptyResultDataAccessException);
+    }
+
+    @Test
+    void detectPoolSize() {
+        assertEquals(Runtime.getRuntime().availableProcessors() * 2,
+                AsyncJdbcTemplatePlus.detectPoolSize(jdbcTemplate.getDataSource()));
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class User {
+
+        private Integer id;
+        private String name;
+    }
+}
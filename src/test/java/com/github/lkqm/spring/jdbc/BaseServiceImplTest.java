@@ -0,0 +1,194 @@
+package com.github.lkqm.spring.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class BaseServiceImplTest {
+
+    private JdbcTemplatePlus jdbcTemplate;
+    private UserService userService;
+
+    @BeforeEach
+    public void before() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setUrl("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;MODE=MYSQL");
+        jdbcTemplate = new JdbcTemplatePlus(dataSource);
+        jdbcTemplate.execute("create table user( id int auto_increment primary key, name varchar(255) )");
+        userService = new UserService();
+        userService.setJdbcTemplate(jdbcTemplate);
+        userService.insertAll(Arrays.asList(new User(1, "LW"), new User(2, "LW"), new User(3, "LW")));
+    }
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.execute("drop table user");
+    }
+
+    @Test
+    void cacheFindById() {
+        userService.enableCache(2, 1, TimeUnit.MINUTES);
+        EntityCache<Integer, User> cache = userService.getEntityCache();
+        User user = userService.findById(1);
+        user.name = "EGM";
+        assertEquals("LW", userService.findById(1).name);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // 测试: 写入后失效
+        userService.update(new User(1, "EGM"));
+        assertEquals("EGM", userService.findById(1).name);
+        assertEquals(2, cache.getMissCount());
+
+        // 测试: 直接修改数据库不会失效
+        jdbcTemplate.update("update user set name = ? where id = ?", "LW", 1);
+        assertEquals("EGM", userService.findById(1).name);
+
+        userService.deleteById(1);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void cacheInTransaction() {
+        userService.enableCache(10, 1, TimeUnit.MINUTES);
+        final EntityCache<Integer, User> cache = userService.getEntityCache();
+        userService.findById(1);
+        assertEquals(1, cache.size());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                userService.update(new User(1, "EGM"));
+                assertEquals("EGM", userService.findById(1).name);
+                assertEquals("EGM", userService.findById(Arrays.asList(1, 2)).get(0).name);
+                assertEquals(0, cache.size());
+                status.setRollbackOnly();
+            }
+        });
+        // 测试: 未提交的数据不会进入缓存
+        assertEquals(0, cache.size());
+        assertEquals("LW", userService.findById(1).name);
+    }
+
+    @Test
+    void cacheFindByIds() {
+        // 测试: 未启用缓存时同样按参数顺序返回且不重复
+        List<User> uncached = userService.findById(Arrays.asList(3, 2, 4, 3));
+        assertEquals(2, uncached.size());
+        assertEquals(3, (int) uncached.get(0).id);
+        assertEquals(2, (int) uncached.get(1).id);
+
+        userService.enableCache(2, 0, TimeUnit.MINUTES);
+        EntityCache<Integer, User> cache = userService.getEntityCache();
+        userService.findById(2);
+        List<User> users = userService.findById(Arrays.asList(3, 2, 4, 3));
+        assertEquals(2, users.size());
+        assertEquals(3, (int) users.get(0).id);
+        assertEquals(2, (int) users.get(1).id);
+        assertEquals(1, cache.getHitCount());
+
+        // 测试: 超过最大条数时淘汰最久未访问的实体
+        userService.findById(1);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(2));
+    }
+
+    @Test
+    void loaderFindById() throws Exception {
+        final AtomicInteger queries = new AtomicInteger();
+        JdbcTemplatePlus countingTemplate = new JdbcTemplatePlus(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> List<T> findByIds(Collection<?> ids, Class<T> entityClass) {
+                queries.incrementAndGet();
+                return super.findByIds(ids, entityClass);
+            }
+        };
+        userService.setJdbcTemplate(countingTemplate);
+        userService.enableLoader(100, 200, TimeUnit.MILLISECONDS);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<User>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final int id = i % 3 + 1;
+                futures.add(executor.submit(new Callable<User>() {
+                    @Override
+                    public User call() throws Exception {
+                        start.await();
+                        return userService.findById(id);
+                    }
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < threads; i++) {
+                assertEquals(i % 3 + 1, (int) futures.get(i).get().id);
+            }
+            // 测试: 相同主键的调用方各自得到不同的实例
+            assertNotSame(futures.get(0).get(), futures.get(3).get());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(queries.get() < threads);
+
+        // 测试: 事务中不合并, 能查询到当前事务未提交的数据
+        new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()))
+                .execute(new TransactionCallbackWithoutResult() {
+                    @Override
+                    protected void doInTransactionWithoutResult(TransactionStatus status) {
+                        userService.insert(new User(5, "EGM"));
+                        assertEquals("EGM", userService.findById(5).name);
+                        status.setRollbackOnly();
+                    }
+                });
+
+        assertThrows(EmptyResultDataAccessException.class, new Executable() {
+            @Override
+            public void execute() {
+                userService.findById(4);
+            }
+        });
+    }
+
+    public static class UserService extends BaseServiceImpl<User, Integer> {
+
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class User {
+
+        private Integer id;
+        private String name;
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.lkqm.spring.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.persistence.Transient;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.Test;
+
+class EntityInfoTest {
+
+    @AllArgsConstructor
+    public class User {
+        private Integer id;
+        private String name;
+        private int age;
+        @Transient
+        private String remark;
+        private Date createTime;
+    }
+
+    @Test
+    void getNullFieldsMask() {
+        EntityInfo<User> entityInfo = EntityInfo.newInstance(User.class);
+        assertEquals(0L, entityInfo.getNullFieldsMask(new User(1, "Luo", 18, null, new Date())));
+        assertEquals(0b10001L, entityInfo.getNullFieldsMask(new User(null, "Luo", 18, null, null)));
+    }
+
+    @Test
+    void bindWithFieldValues() {
+        User user = new User(1, "Luo", 18, "remark", null);
+        BoundSql insert = JdbcTemplateUtils.bindInsert(user);
+        BoundSql update = JdbcTemplateUtils.bindUpdate(user);
+        // 字段值在解析时读取一次, 之后的修改不影响语句和参数
+        user.name = null;
+        assertEquals("insert into user(id, name, age) values(?, ?, ?)", insert.getSql());
+        assertArrayEquals(new Object[]{1, "Luo", 18}, insert.getArgs());
+        assertEquals(Arrays.asList("id", "name", "age"), insert.getArgNames());
+        assertEquals("update user set name=?, age=? where id = ?", update.getSql());
+        assertArrayEquals(new Object[]{"Luo", 18, 1}, update.getArgs());
+    }
+
+    @Test
+    void sqlCache() {
+        EntityInfo<User> entityInfo = EntityInfo.newInstance(User.class);
+        User user = new User(1, "Luo", 18, "remark", null);
+        String sql = entityInfo.getInsertSqlSelective(user, true);
+        assertEquals("insert into user(id, name, age) values(?, ?, ?)", sql);
+        assertSame(sql, entityInfo.getInsertSqlSelective(new User(2, "Mario", 20, null, null), true));
+        assertNotEquals(sql, entityInfo.getInsertSqlSelective(new User(2, "Mario", 20, null, new Date()), true));
+
+        String updateSql = entityInfo.getUpdateByIdSqlSelective(user, true);
+        assertEquals("update user set name=?, age=? where id = ?", updateSql);
+        assertSame(updateSql, entityInfo.getUpdateByIdSqlSelective(user, true));
+        assertEquals("update User set name=?, age=? where id = ?", entityInfo.getUpdateByIdSqlSelective(user, false));
+
+        assertEquals("select id, name, age, create_time from user where id in (?, ?)",
+                entityInfo.getFindByIdsSql(2, true));
+        assertEquals("delete from user where id in (?)", entityInfo.getDeleteByIdsSql(1, true));
+        assertEquals("insert into user(name, age, create_time) values(?, ?, ?), (?, ?, ?)",
+                entityInfo.getInsertValuesSql(2, false, true));
+    }
+
+    @Test
+    void newInstanceConcurrently() throws Exception {
+        class Order {
+            private Long id;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<EntityInfo<Order>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<EntityInfo<Order>>() {
+                    @Override
+                    public EntityInfo<Order> call() {
+                        return EntityInfo.newInstance(Order.class);
+                    }
+                }));
+            }
+            for (Future<EntityInfo<Order>> future : futures) {
+                assertSame(EntityInfo.newInstance(Order.class), future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void warmUp() {
+        Set<Class<?>> classes = InnerUtils.scanEntityClasses(getClass().getClassLoader(), "com.github.lkqm.spring.jdbc");
+        assertTrue(classes.contains(ClassInfoTest.AnnotationUser.class));
+        assertFalse(classes.contains(User.class));
+
+        EntityInfo<User> entityInfo = EntityInfo.newInstance(User.class);
+        entityInfo.warmUp(H2Dialect.INSTANCE, 8, true);
+        assertSame(entityInfo.getFindByIdsSql(8, true), entityInfo.getFindByIdsSql(8, true));
+        assertSame(entityInfo.getUpsertSql(H2Dialect.INSTANCE, true), entityInfo.getUpsertSql(H2Dialect.INSTANCE, true));
+        assertEquals("select id, name, age, create_time from user where id > ? order by id limit ?",
+                entityInfo.getFindPageSql(H2Dialect.INSTANCE, true, true));
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.lkqm.spring.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.github.lkqm.spring.jdbc.EntityInfo.FieldInfo;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import javax.persistence.Table;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EntityMetadataProcessorTest {
+
+    private static final String BOOK_SOURCE = "package gen;\n"
+            + "import javax.persistence.*;\n"
+            + "@Table(name = \"book\")\n"
+            + "public class Book {\n"
+            + "    private static final long serialVersionUID = 1L;\n"
+            + "    private Long id;\n"
+            + "    String title;\n"
+            + "    private int pages;\n"
+            + "    private boolean published;\n"
+            + "    @Column(name = \"book_price\")\n"
+            + "    private java.math.BigDecimal price;\n"
+            + "    @Transient\n"
+            + "    private String remark;\n"
+            + "    public Long getId() { return id; }\n"
+            + "    public void setId(Long id) { this.id = id; }\n"
+            + "    public int getPages() { return pages; }\n"
+            + "    public void setPages(int pages) { this.pages = pages; }\n"
+            + "    public boolean isPublished() { return published; }\n"
+            + "    public void setPublished(boolean published) { this.published = published; }\n"
+            + "    public String getRemark() { return remark; }\n"
+            + "    public void setRemark(String remark) { this.remark = remark; }\n"
+            + "}\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generateMetadata() throws Exception {
+        try (URLClassLoader classLoader = compile("gen/Book.java", BOOK_SOURCE)) {
+            generateMetadata(classLoader.loadClass("gen.Book"));
+        }
+    }
+
+    private void generateMetadata(Class<?> bookClass) throws Exception {
+        assertNotNull(Class.forName("gen.Book" + EntityInfo.METADATA_CLASS_SUFFIX, false, bookClass.getClassLoader()));
+
+        EntityInfo<?> entityInfo = EntityInfo.newInstance(bookClass);
+        assertEquals("book", entityInfo.getTableName(true));
+        assertEquals(Arrays.asList("id", "title", "pages", "published", "book_price"), entityInfo.getColumnNames(true));
+        assertEquals("id", entityInfo.getIdFieldInfo().getFieldName());
+        for (FieldInfo fieldInfo : entityInfo.getFieldsInfo()) {
+            assertNull(fieldInfo.getField());
+        }
+        assertTrue(entityInfo.getFieldInfoByColumn("pages", true).getAccessor() instanceof AbstractFieldAccessor);
+        assertTrue(entityInfo.getFieldInfoByColumn("book_price", true).getAccessor() instanceof ReflectionFieldAccessor);
+        assertTrue(entityInfo.getFieldsInfo().get(5).isTransients());
+    }
+
+    @Test
+    void crudWithGeneratedMetadata() throws Exception {
+        try (URLClassLoader classLoader = compile("gen/Book.java", BOOK_SOURCE)) {
+            crudWithGeneratedMetadata(classLoader.loadClass("gen.Book"));
+        }
+    }
+
+    private <T> void crudWithGeneratedMetadata(Class<T> bookClass) {
+        EntityInfo<T> entityInfo = EntityInfo.newInstance(bookClass);
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setUrl("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;MODE=MYSQL");
+        JdbcTemplatePlus jdbcTemplate = new JdbcTemplatePlus(dataSource);
+        jdbcTemplate.execute("create table book(id bigint primary key, title varchar(255), pages int, "
+                + "published boolean, book_price decimal(10, 2))");
+        try {
+            T book = entityInfo.createEntityObject();
+            entityInfo.setIdValue(book, 1L);
+            entityInfo.getFieldInfoByColumn("title", true).set(book, "Java");
+            entityInfo.getFieldInfoByColumn("pages", true).setInt(book, 300);
+            entityInfo.getFieldInfoByColumn("published", true).setBoolean(book, true);
+            entityInfo.getFieldInfoByColumn("book_price", true).set(book, new BigDecimal("9.90"));
+            assertEquals(1, jdbcTemplate.insert(book));
+
+            T found = jdbcTemplate.findById(1L, bookClass);
+            assertEquals("Java", entityInfo.getFieldInfoByColumn("title", true).get(found));
+            assertEquals(300, entityInfo.getFieldInfoByColumn("pages", true).getInt(found));
+            assertTrue(entityInfo.getFieldInfoByColumn("published", true).getBoolean(found));
+            assertEquals(new BigDecimal("9.90"), entityInfo.getFieldInfoByColumn("book_price", true).get(found));
+
+            entityInfo.getFieldInfoByColumn("published", true).setBoolean(found, false);
+            jdbcTemplate.updateById(found);
+            assertFalse((Boolean) entityInfo.getFieldInfoByColumn("published", true)
+                    .get(jdbcTemplate.findById(1L, bookClass)));
+        } finally {
+            jdbcTemplate.execute("drop table book");
+        }
+    }
+
+    @Test
+    void skipWithoutNoArgConstructor() throws Exception {
+        String source = "package gen;\n"
+                + "@javax.persistence.Table(name = \"book\")\n"
+                + "public class Note {\n"
+                + "    private Long id;\n"
+                + "    public Note(Long id) { this.id = id; }\n"
+                + "}\n";
+        try (URLClassLoader classLoader = compile("gen/Note.java", source)) {
+            assertNotNull(classLoader.loadClass("gen.Note"));
+        }
+        assertFalse(Files.exists(tempDir.resolve("gen/Note" + EntityInfo.METADATA_CLASS_SUFFIX + ".class")));
+    }
+
+    /**
+     * 使用注解处理器编译源文件, 返回加载编译结果的ClassLoader
+     */
+    private URLClassLoader compile(String path, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeTrue(compiler != null, "Java compiler is not available");
+        Path file = tempDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+
+        String classpath = location(Table.class) + File.pathSeparator + location(EntityInfo.class);
+        int result = compiler.run(null, null, null, "-classpath", classpath,
+                "-processor", EntityMetadataProcessor.class.getName(),
+                "-d", tempDir.toString(), "-s", tempDir.toString(), file.toString());
+        assertEquals(0, result);
+        return new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static String location(Class<?> clazz) {
+        return new File(clazz.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+    }
+}
@@ -9,6 +9,7 @@ import javax.persistence.Column;
 import javax.persistence.Transient;
 import lombok.AllArgsConstructor;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 
 class FieldInfoTest {
 
@@ -23,6 +24,12 @@ class FieldInfoTest {
         private Date createTime;
     }
 
+    public static class Counter {
+        private long count;
+        private int version;
+        private String name;
+    }
+
     @Test
     public void test() throws NoSuchFieldException {
         User1 user1 = new User1(1, "罗", null);
@@ -49,4 +56,41 @@ class FieldInfoTest {
         assertEquals("createTime", timeFieldInfo.getColumnName(false));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void methodHandleAccessor() throws NoSuchFieldException {
+        final Counter counter = new Counter();
+        FieldInfo countFieldInfo = new FieldInfo(Counter.class.getDeclaredField("count"),
+                MethodHandleFieldAccessor.FACTORY);
+        countFieldInfo.setLong(counter, 10L);
+        assertEquals(10L, countFieldInfo.getLong(counter));
+        assertEquals(10L, countFieldInfo.get(counter));
+        countFieldInfo.set(counter, 11L);
+        assertEquals(11L, counter.count);
+
+        // 基本类型拓宽
+        final FieldInfo versionFieldInfo = new FieldInfo(Counter.class.getDeclaredField("version"),
+                MethodHandleFieldAccessor.FACTORY);
+        versionFieldInfo.setInt(counter, 2);
+        assertEquals(2L, versionFieldInfo.getLong(counter));
+        assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                versionFieldInfo.setLong(counter, 3L);
+            }
+        });
+        assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                versionFieldInfo.getBoolean(counter);
+            }
+        });
+
+        FieldInfo nameFieldInfo = new FieldInfo(Counter.class.getDeclaredField("name"),
+                MethodHandleFieldAccessor.FACTORY);
+        nameFieldInfo.set(counter, "Luo");
+        assertEquals("Luo", nameFieldInfo.get(counter));
+        nameFieldInfo.set(counter, null);
+        assertNull(counter.name);
+    }
+
+}
@@ -1,10 +1,12 @@
 package com.github.lkqm.spring.jdbc;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -40,6 +42,22 @@ class InnerUtilsTest {
         assertEquals("1,1,1,1", InnerUtils.join(",", values));
     }
 
+    @Test
+    void partition() {
+        List<List<Integer>> chunks = InnerUtils.partition(Arrays.asList(1, 2, 3, 4, 5), 2);
+        assertEquals(3, chunks.size());
+        assertEquals(Arrays.asList(5), chunks.get(2));
+        assertEquals(0, InnerUtils.partition(new ArrayList<Integer>(), 2).size());
+    }
+
+    @Test
+    void padInArgs() {
+        assertArrayEquals(new Object[]{1}, InnerUtils.padInArgs(Arrays.asList(1)));
+        assertArrayEquals(new Object[]{1, 2}, InnerUtils.padInArgs(Arrays.asList(1, 2)));
+        assertArrayEquals(new Object[]{1, 2, 3, 3}, InnerUtils.padInArgs(Arrays.asList(1, 2, 3)));
+        assertEquals(8, InnerUtils.padInArgs(Arrays.asList(1, 2, 3, 4, 5)).length);
+    }
+
     @Test
     void convertNumberType() {
         Object v1 = InnerUtils.convertNumberType(Integer.valueOf(1), Integer.class);
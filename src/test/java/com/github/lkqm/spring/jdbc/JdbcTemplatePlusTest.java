@@ -1,16 +1,38 @@
 package com.github.lkqm.spring.jdbc;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
 import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
 class JdbcTemplatePlusTest {
 
@@ -22,11 +44,14 @@ class JdbcTemplatePlusTest {
         dataSource.setUrl("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;MODE=MYSQL");
         jdbcTemplate = new JdbcTemplatePlus(dataSource);
         jdbcTemplate.execute("create table user( id int auto_increment primary key, name varchar(255) )");
+        jdbcTemplate.execute("create table account( id bigint auto_increment primary key, name varchar(255), "
+                + "age int, balance decimal(10, 2), enabled boolean, create_time timestamp )");
     }
 
     @AfterEach
     public void after() {
         jdbcTemplate.execute("drop table user");
+        jdbcTemplate.execute("drop table account");
     }
 
     @Test
@@ -41,6 +66,41 @@ class JdbcTemplatePlusTest {
         assertNotNull(noneIdUser.id);
     }
 
+    @Test
+    void insertAll() {
+        User user = new User(1, "LW");
+        User noneIdUser = new User(null, "LW");
+        User noneNameUser = new User(null, null);
+        User otherNoneIdUser = new User(null, "EGM");
+        jdbcTemplate.setBatchSize(1);
+        int[] rows = jdbcTemplate.insertAll(Arrays.asList(user, noneIdUser, noneNameUser, otherNoneIdUser));
+        assertArrayEquals(new int[]{1, 1, 1, 1}, rows);
+        assertNotNull(noneIdUser.id);
+        assertNotNull(noneNameUser.id);
+        assertNotNull(otherNoneIdUser.id);
+        assertEquals("EGM", jdbcTemplate.findById(otherNoneIdUser.id, User.class).name);
+        assertEquals(0, jdbcTemplate.insertAll(Collections.emptyList()).length);
+    }
+
+    @Test
+    void insertAllMultiValues() {
+        // 默认使用方言的限制
+        assertEquals(H2Dialect.INSTANCE.getMaxBindParameters(), jdbcTemplate.getMaxBindParameters());
+        assertEquals(H2Dialect.INSTANCE.getMaxInsertRows(), jdbcTemplate.getMaxInsertRows());
+        assertEquals(2000, StandardDialect.INSTANCE.getMaxBindParameters());
+
+        jdbcTemplate.setMaxBindParameters(4);
+        jdbcTemplate.setMaxInsertRows(1);
+        jdbcTemplate.setMaxPacketSize(64);
+        List<User> users = Arrays.asList(new User(1, "LW"), new User(2, null), new User(3, "EGM"),
+                new User(null, "LW"), new User(4, "LW"));
+        int[] rows = jdbcTemplate.insertAll(users, InsertMode.MULTI_VALUES);
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1}, rows);
+        assertNotNull(users.get(3).id);
+        assertEquals(5, jdbcTemplate.findByIds(Arrays.asList(1, 2, 3, 4, users.get(3).id), User.class).size());
+        assertNull(jdbcTemplate.findById(2, User.class).name);
+    }
+
     @Test
     void deleteById() {
         jdbcTemplate.insert(new User(1, "LW"));
@@ -65,6 +125,140 @@ class JdbcTemplatePlusTest {
         assertEquals("EGM", user.name);
     }
 
+    @Test
+    void insertAndUpdateTypedColumns() {
+        Date createTime = new Date(1600000000000L);
+        Account account = new Account(null, "LW", 18, new BigDecimal("9.50"), true, createTime);
+        jdbcTemplate.insert(account);
+        assertNotNull(account.id);
+
+        jdbcTemplate.updateById(new Account(account.id, null, 20, null, false, null));
+        Account result = jdbcTemplate.findById(account.id, Account.class);
+        assertEquals("LW", result.name);
+        assertEquals(20, result.age);
+        assertEquals(new BigDecimal("9.50"), result.balance);
+        assertEquals(false, result.enabled);
+        assertEquals(createTime.getTime(), result.createTime.getTime());
+    }
+
+    @Test
+    void updateAllById() {
+        List<Account> accounts = Arrays.asList(new Account(null, "LW", 18, BigDecimal.ONE, true, null),
+                new Account(null, "LW", 18, BigDecimal.ONE, true, null),
+                new Account(null, "LW", 18, BigDecimal.ONE, true, null));
+        jdbcTemplate.insertAll(accounts);
+        int[] rows = jdbcTemplate.updateAllById(Arrays.asList(
+                new Account(accounts.get(0).id, "EGM", 20, null, false, null),
+                new Account(accounts.get(1).id, null, 21, BigDecimal.TEN, true, null),
+                new Account(accounts.get(2).id, "EGM", 22, null, false, null),
+                new Account(-1L, "EGM", 23, null, false, null)));
+        assertArrayEquals(new int[]{1, 1, 1, 0}, rows);
+
+        Account first = jdbcTemplate.findById(accounts.get(0).id, Account.class);
+        assertEquals("EGM", first.name);
+        assertEquals(20, first.age);
+        assertEquals(0, BigDecimal.ONE.compareTo(first.balance));
+        Account second = jdbcTemplate.findById(accounts.get(1).id, Account.class);
+        assertEquals("LW", second.name);
+        assertEquals(0, BigDecimal.TEN.compareTo(second.balance));
+        assertEquals(22, jdbcTemplate.findById(accounts.get(2).id, Account.class).age);
+    }
+
+    @Test
+    void upsert() {
+        assertTrue(jdbcTemplate.getDialect() instanceof H2Dialect);
+        jdbcTemplate.upsert(new User(1, "LW"));
+        jdbcTemplate.upsert(new User(1, "EGM"));
+        assertEquals("EGM", jdbcTemplate.findById(1, User.class).name);
+
+        // H2的MySQL模式支持on duplicate key update
+        jdbcTemplate.setDialect(MySqlDialect.INSTANCE);
+        int[] rows = jdbcTemplate.upsertAll(Arrays.asList(new User(1, "LW"), new User(2, "LW")));
+        assertEquals(2, rows.length);
+        assertEquals("LW", jdbcTemplate.findById(1, User.class).name);
+        assertEquals("LW", jdbcTemplate.findById(2, User.class).name);
+    }
+
+    @Test
+    void dialectLimit() {
+        jdbcTemplate.insertAll(Arrays.asList(new User(1, "LW"), new User(2, "LW"), new User(3, "LW")));
+        Dialect dialect = jdbcTemplate.getDialect();
+        String sql = "select id, name from user order by id";
+        RowMapper<User> rowMapper = JdbcTemplateUtils.parseRowMapper(User.class);
+        List<User> first = jdbcTemplate.query(dialect.getLimitSql(sql), rowMapper, 2);
+        assertEquals(2, first.size());
+
+        List<User> standard = jdbcTemplate.query(StandardDialect.INSTANCE.getLimitSql(sql), rowMapper, 1);
+        assertEquals(1, standard.size());
+        assertEquals(1, (int) standard.get(0).id);
+    }
+
+    @Test
+    void findByIdProjection() {
+        Account account = new Account(null, "LW", 18, new BigDecimal("9.50"), true, new Date());
+        jdbcTemplate.insert(account);
+
+        Account partial = jdbcTemplate.findById(account.id, Account.class, "name", "createTime");
+        assertEquals("LW", partial.name);
+        assertNotNull(partial.createTime);
+        assertNull(partial.id);
+        assertNull(partial.balance);
+        assertEquals(0, partial.age);
+        assertEquals(1, jdbcTemplate.findByIds(Arrays.asList(account.id, -1L), Account.class, "id", "age").size());
+
+        AccountSummary summary = jdbcTemplate.findById(account.id, Account.class, AccountSummary.class);
+        assertEquals("LW", summary.name);
+        assertEquals(18, summary.age);
+        List<AccountSummary> summaries = jdbcTemplate.findByIds(Collections.singletonList(account.id),
+                Account.class, AccountSummary.class);
+        assertEquals(0, new BigDecimal("9.50").compareTo(summaries.get(0).balance));
+    }
+
+    @Test
+    void existsAndCount() {
+        jdbcTemplate.insertAll(Arrays.asList(new User(1, "LW"), new User(2, "LW"), new User(3, "LW")));
+        assertTrue(jdbcTemplate.existsById(1, User.class));
+        assertFalse(jdbcTemplate.existsById(4, User.class));
+        assertEquals(new LinkedHashSet<>(Arrays.asList(3, 1)),
+                jdbcTemplate.existsByIds(Arrays.asList(3, 4, 1, 1), User.class));
+        assertEquals(3, jdbcTemplate.count(User.class));
+        assertEquals(2, jdbcTemplate.countByIds(Arrays.asList(1, 2, 2, 5), User.class));
+
+        // 测试: 主键类型与参数类型不一致, Long主键传入Integer, 返回参数中的主键
+        jdbcTemplate.insert(new Account(null, "LW", 18, null, true, null));
+        assertEquals(Collections.singleton(1), jdbcTemplate.existsByIds(Arrays.asList(1, 2), Account.class));
+    }
+
+    @Test
+    void findPageAfter() {
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            users.add(new User(i, "LW" + i));
+        }
+        jdbcTemplate.insertAll(users);
+
+        Slice<User> first = jdbcTemplate.findPageAfter(null, 2, User.class);
+        assertEquals(2, first.getContent().size());
+        assertEquals(2, first.getLastId());
+        assertTrue(first.hasNext());
+        Slice<User> last = jdbcTemplate.findPageAfter(4, 2, User.class);
+        assertEquals(1, last.getContent().size());
+        assertFalse(last.hasNext());
+
+        List<Integer> ids = new ArrayList<>();
+        for (Iterator<Slice<User>> it = jdbcTemplate.slices(2, User.class); it.hasNext(); ) {
+            for (User user : it.next()) {
+                ids.add(user.id);
+            }
+        }
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), ids);
+
+        // 测试: 最后一页已满时不返回空页
+        Iterator<Slice<User>> exact = jdbcTemplate.slices(5, User.class);
+        assertEquals(5, exact.next().getContent().size());
+        assertFalse(exact.hasNext());
+    }
+
     @Test
     void findById() {
         jdbcTemplate.insert(new User(1, "LW"));
@@ -85,9 +279,257 @@ class JdbcTemplatePlusTest {
         assertEquals(2, users.size());
     }
 
+    @Test
+    void findAndDeleteByIdsInChunks() {
+        List<User> users = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            users.add(new User(i, "LW"));
+            ids.add(i);
+        }
+        jdbcTemplate.insertAll(users);
+        jdbcTemplate.setMaxInListSize(3);
+        assertEquals(2, jdbcTemplate.getMaxInListSize());
+
+        assertEquals(10, jdbcTemplate.findByIds(ids, User.class).size());
+        // 测试: 重复主键分到不同语句时不返回重复的行
+        assertEquals(3, jdbcTemplate.findByIds(Arrays.asList(1, 2, 3, 1, 1), User.class).size());
+        assertEquals(3, jdbcTemplate.findByIds(Arrays.asList(1, 2, 3, 1, 1), User.class, "name").size());
+        assertEquals(0, jdbcTemplate.findByIds(new ArrayList<Integer>(), User.class).size());
+        assertEquals(7, jdbcTemplate.deleteByIds(ids.subList(3, 10), User.class));
+        assertEquals(3, jdbcTemplate.findByIds(ids, User.class).size());
+    }
+
+    @Test
+    void queryWithEntityRowMapper() {
+        jdbcTemplate.insert(new Account(null, "LW", 18, null, true, null));
+        RowMapper<Account> rowMapper = JdbcTemplateUtils.parseRowMapper(Account.class);
+
+        Account all = jdbcTemplate.queryForObject("select * from account", rowMapper);
+        assertEquals("LW", all.name);
+        assertEquals(18, all.age);
+        assertTrue(all.enabled);
+
+        Account projection = jdbcTemplate.queryForObject("select AGE, id from account", rowMapper);
+        assertNotNull(projection.id);
+        assertNull(projection.name);
+        assertEquals(18, projection.age);
+
+        // 测试: 共享的映射器交替映射不同列的ResultSet
+        final RowMapper<Account> sharedMapper = JdbcTemplateUtils.parseRowMapper(Account.class);
+        jdbcTemplate.insert(new Account(null, "EGM", 20, null, true, null));
+        final List<Account> outer = new ArrayList<>();
+        final List<Account> inner = new ArrayList<>();
+        jdbcTemplate.query("select name, id from account order by id", new RowCallbackHandler() {
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                outer.add(sharedMapper.mapRow(rs, rs.getRow()));
+                inner.add(jdbcTemplate.queryForObject("select age from account where id = ?", sharedMapper,
+                        outer.get(outer.size() - 1).id));
+            }
+        });
+        assertEquals("LW", outer.get(0).name);
+        assertEquals("EGM", outer.get(1).name);
+        assertEquals(18, inner.get(0).age);
+        assertEquals(20, inner.get(1).age);
+        assertNull(inner.get(1).name);
+    }
+
+    @Test
+    void operationListener() {
+        OperationRecorder recorder = new OperationRecorder();
+        final List<OperationEvent> events = new ArrayList<>();
+        OperationListener listener = new OperationListener() {
+            @Override
+            public void onOperation(OperationEvent event) {
+                events.add(event);
+            }
+        };
+        jdbcTemplate.addOperationListener(recorder);
+        jdbcTemplate.addOperationListener(listener);
+
+        jdbcTemplate.insertAll(Arrays.asList(new User(1, "LW"), new User(2, "EGM")));
+        jdbcTemplate.findByIds(Arrays.asList(1, 2), User.class);
+        try {
+            jdbcTemplate.findById(3, User.class);
+        } catch (RuntimeException ignored) {
+        }
+        assertEquals(3, events.size());
+        OperationEvent insertEvent = events.get(0);
+        assertEquals(OperationType.INSERT, insertEvent.getType());
+        assertTrue(insertEvent.isBatch());
+        assertEquals(2, insertEvent.getRows());
+        assertEquals("insert into user(id, name) values(?, ?)", insertEvent.getSql());
+        OperationEvent findEvent = events.get(1);
+        assertEquals(User.class, findEvent.getEntityClass());
+        assertEquals(2, findEvent.getRows());
+        assertTrue(findEvent.getMapNanos() > 0);
+        assertTrue(events.get(2).isFailed());
+
+        OperationRecorder.Stats stats = recorder.getStats(User.class, OperationType.FIND);
+        assertEquals(2, stats.getLatency().getCount());
+        assertEquals(1, stats.getFailures().get());
+        assertEquals(2, stats.getRows().get());
+        assertEquals(2, recorder.getAllStats().size());
+
+        // 测试: 移除后不再通知
+        jdbcTemplate.removeOperationListener(listener);
+        jdbcTemplate.deleteById(1, User.class);
+        assertEquals(3, events.size());
+        assertEquals(1, recorder.getStats(User.class, OperationType.DELETE).getLatency().getCount());
+    }
+
+    @Test
+    void dirtyTracking() {
+        final List<String> sqls = new ArrayList<>();
+        jdbcTemplate.addOperationListener(new OperationListener() {
+            @Override
+            public void onOperation(OperationEvent event) {
+                if (event.getType() == OperationType.UPDATE) {
+                    sqls.add(event.getSql());
+                }
+            }
+        });
+        jdbcTemplate.setDirtyTracker(new DirtyTracker());
+        jdbcTemplate.insertAll(Arrays.asList(new Account(1L, "LW", 18, new BigDecimal("1.00"), true, new Date()),
+                new Account(2L, "EGM", 20, null, false, null)));
+
+        // 测试: 没有变化时不执行语句
+        Account account = jdbcTemplate.findById(1L, Account.class);
+        assertTrue(jdbcTemplate.getDirtyTracker().isTracked(account));
+        assertEquals(0, jdbcTemplate.updateById(account));
+        assertTrue(sqls.isEmpty());
+
+        // 测试: 只更新变化的列, 包括变为null的列
+        account.age = 19;
+        account.createTime = null;
+        assertEquals(1, jdbcTemplate.updateById(account));
+        assertEquals("update account set age=?, create_time=? where id = ?", sqls.get(0));
+        Account updated = jdbcTemplate.findById(1L, Account.class);
+        assertEquals(19, updated.age);
+        assertNull(updated.createTime);
+        assertEquals("LW", updated.name);
+        assertEquals(0, jdbcTemplate.updateById(account));
+
+        // 测试: 批量更新跳过没有变化的实体, 没有快照的实体按非null字段更新
+        List<Account> accounts = jdbcTemplate.findByIds(Arrays.asList(1L, 2L), Account.class);
+        accounts.get(1).name = null;
+        Account untracked = new Account(1L, "MR", 30, null, true, null);
+        int[] rows = jdbcTemplate.updateAllById(Arrays.asList(accounts.get(0), accounts.get(1), untracked));
+        assertArrayEquals(new int[]{0, 1, 1}, rows);
+        assertEquals("update account set name=? where id = ?", sqls.get(1));
+        assertNull(jdbcTemplate.findById(2L, Account.class).name);
+        assertEquals("MR", jdbcTemplate.findById(1L, Account.class).name);
+
+        // 测试: 事务回滚时删除快照, 重试时仍然执行更新
+        final Account rollback = jdbcTemplate.findById(2L, Account.class);
+        rollback.age = 21;
+        new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()))
+                .execute(new TransactionCallbackWithoutResult() {
+                    @Override
+                    protected void doInTransactionWithoutResult(TransactionStatus status) {
+                        assertEquals(1, jdbcTemplate.updateById(rollback));
+                        status.setRollbackOnly();
+                    }
+                });
+        assertFalse(jdbcTemplate.getDirtyTracker().isTracked(rollback));
+        assertEquals(1, jdbcTemplate.updateById(rollback));
+        assertEquals(21, jdbcTemplate.findById(2L, Account.class).age);
+
+        // 测试: 没有匹配的行时不刷新快照
+        EntityInfo<Account> entityInfo = EntityInfo.newInstance(Account.class);
+        jdbcTemplate.deleteById(2L, Account.class);
+        rollback.age = 22;
+        assertEquals(0, jdbcTemplate.updateById(rollback));
+        assertTrue(jdbcTemplate.getDirtyTracker().getChangedFieldsMask(entityInfo, rollback) != 0L);
+
+        // 测试: 快照数量达到上限后不再记录
+        DirtyTracker limited = new DirtyTracker(1);
+        limited.snapshot(entityInfo, account);
+        limited.snapshot(entityInfo, rollback);
+        assertTrue(limited.isTracked(account));
+        assertFalse(limited.isTracked(rollback));
+    }
+
+    @Test
+    void iterate() {
+        jdbcTemplate.insertAll(Arrays.asList(new User(1, "LW"), new User(2, "EGM"), new User(3, "LW")));
+        jdbcTemplate.setStreamFetchSize(1);
+
+        ResultIterator<User> iterator = jdbcTemplate.iterate("select * from user where id > ? order by id",
+                User.class, 1);
+        assertTrue(iterator.hasNext());
+        assertEquals(2, (int) iterator.next().id);
+        assertEquals(3, (int) iterator.next().id);
+        assertFalse(iterator.hasNext());
+        assertTrue(iterator.isClosed());
+
+        ResultIterator<User> closedIterator = jdbcTemplate.iterate("select * from user", User.class);
+        closedIterator.next();
+        closedIterator.close();
+        assertFalse(closedIterator.hasNext());
+    }
+
+    @Test
+    void iterateMappingFailed() throws SQLException {
+        jdbcTemplate.insert(new User(1, "LW"));
+        Connection connection = jdbcTemplate.getDataSource().getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("select * from user");
+        final ResultIterator<User> iterator = new ResultIterator<>("select * from user", resultSet, statement,
+                connection, jdbcTemplate.getDataSource(), new RowMapper<User>() {
+                    @Override
+                    public User mapRow(ResultSet rs, int rowNum) {
+                        throw new IllegalStateException("mapping failed");
+                    }
+                }, jdbcTemplate.getExceptionTranslator());
+        assertThrows(IllegalStateException.class, new Executable() {
+            @Override
+            public void execute() {
+                iterator.next();
+            }
+        });
+        assertTrue(iterator.isClosed());
+        assertTrue(statement.isClosed());
+        assertTrue(connection.isClosed());
+    }
+
+    @Test
+    void forEach() {
+        jdbcTemplate.insertAll(Arrays.asList(new User(1, "LW"), new User(2, "EGM"), new User(3, "LW")));
+        final List<String> names = new ArrayList<>();
+        long rows = jdbcTemplate.forEach("select * from user where name = ?", User.class, new EntityCallback<User>() {
+            @Override
+            public void process(User entity) {
+                names.add(entity.name);
+            }
+        }, "LW");
+        assertEquals(2, rows);
+        assertEquals(Arrays.asList("LW", "LW"), names);
+    }
+
     @AllArgsConstructor
     public static class User {
         private Integer id;
         private String name;
     }
+
+    @NoArgsConstructor
+    public static class AccountSummary {
+
+        private String name;
+        private int age;
+        private BigDecimal balance;
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Account {
+        private Long id;
+        private String name;
+        private int age;
+        private BigDecimal balance;
+        private boolean enabled;
+        private Date createTime;
+    }
 }
@@ -3,8 +3,13 @@ package com.github.lkqm.spring.jdbc;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.util.Arrays;
 import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import org.junit.jupiter.api.Test;
 
@@ -17,6 +22,14 @@ class JdbcTemplateUtilsTest {
         private Date createTime;
     }
 
+    @AllArgsConstructor
+    @Table(name = "order")
+    public class Order {
+        private Integer id;
+        @Column(name = "userName")
+        private String user;
+    }
+
     @Test
     void parseInsert() {
         User user = new User(1, "Mario Luo", new Date());
@@ -35,6 +48,63 @@ class JdbcTemplateUtilsTest {
         assertArrayEquals(noneIdArgs, noneIdPreparedSql.args);
     }
 
+    @Test
+    void parseInsertValues() {
+        User user1 = new User(1, "Mario Luo", null);
+        User user2 = new User(2, "Luo", new Date());
+        Object[] args = {user1.id, user1.name, user1.createTime, user2.id, user2.name, user2.createTime};
+        PreparedSql preparedSql = JdbcTemplateUtils.parseInsertValues(Arrays.asList(user1, user2), true);
+        assertEquals("insert into user(id, name, create_time) values(?, ?, ?), (?, ?, ?)", preparedSql.sql);
+        assertArrayEquals(args, preparedSql.args);
+
+        // 测试: 不包含主键
+        Object[] noneIdArgs = {user1.name, user1.createTime};
+        PreparedSql noneIdPreparedSql = JdbcTemplateUtils.parseInsertValues(Arrays.asList(user1), false);
+        assertEquals("insert into user(name, create_time) values(?, ?)", noneIdPreparedSql.sql);
+        assertArrayEquals(noneIdArgs, noneIdPreparedSql.args);
+    }
+
+    @Test
+    void bindUpsert() {
+        User user = new User(1, "Mario Luo", null);
+        assertEquals("insert into user(id, name, create_time) values(?, ?, ?) on duplicate key update "
+                        + "name = values(name), create_time = values(create_time)",
+                JdbcTemplateUtils.bindUpsert(user, MySqlDialect.INSTANCE).sql);
+        assertEquals("merge into user(id, name, create_time) key(id) values(?, ?, ?)",
+                JdbcTemplateUtils.bindUpsert(user, H2Dialect.INSTANCE).sql);
+        // user在PostgreSQL中是保留字
+        assertEquals("insert into \"user\"(id, name, create_time) values(?, ?, ?) on conflict (id) do update set "
+                        + "name = excluded.name, create_time = excluded.create_time",
+                JdbcTemplateUtils.bindUpsert(user, PostgreSqlDialect.INSTANCE).sql);
+        assertEquals("merge into user t using (values(?, ?, ?)) s(id, name, create_time) on t.id = s.id "
+                        + "when matched then update set name = s.name, create_time = s.create_time "
+                        + "when not matched then insert(id, name, create_time) values(s.id, s.name, s.create_time)",
+                JdbcTemplateUtils.bindUpsert(user, StandardDialect.INSTANCE).sql);
+    }
+
+    @Test
+    void parseFindArray() {
+        PreparedSql preparedSql = JdbcTemplateUtils.parseFind(Arrays.asList(1, 2, 3), User.class,
+                PostgreSqlDialect.INSTANCE);
+        assertEquals("select id, name, create_time from \"user\" where id = any(?)", preparedSql.sql);
+        assertEquals(1, preparedSql.args.length);
+        assertEquals("delete from \"user\" where id = any(?)",
+                JdbcTemplateUtils.parseDelete(Arrays.asList(1, 2), User.class, PostgreSqlDialect.INSTANCE).sql);
+
+        // 测试: 方言不支持数组绑定
+        assertNull(JdbcTemplateUtils.parseFind(Arrays.asList(1, 2), User.class, MySqlDialect.INSTANCE));
+    }
+
+    @Test
+    void parseFindProjection() {
+        PreparedSql preparedSql = JdbcTemplateUtils.parseFind(1, User.class, new String[]{"name", "createTime"});
+        assertEquals("select name, create_time as createTime from user where id = ?", preparedSql.sql);
+        assertSame(preparedSql.sql,
+                JdbcTemplateUtils.parseFind(2, User.class, new String[]{"name", "createTime"}).sql);
+        assertEquals("select id, name from user where id in (?, ?, ?, ?)",
+                JdbcTemplateUtils.parseFind(Arrays.asList(1, 2, 3), User.class, new String[]{"id", "name"}).sql);
+    }
+
     @Test
     void parseDelete() {
         Object[] args = {1};
@@ -62,5 +132,42 @@ class JdbcTemplateUtilsTest {
         assertNotNull(preparedSql);
         assertEquals("select id, name, create_time from user where id = ?", preparedSql.sql);
         assertArrayEquals(args, preparedSql.args);
+
+        // 测试: 多个主键填充到2的幂
+        PreparedSql idsPreparedSql = JdbcTemplateUtils.parseFind(Arrays.asList(1, 2, 3), User.class);
+        assertEquals("select id, name, create_time from user where id in (?, ?, ?, ?)", idsPreparedSql.sql);
+        assertArrayEquals(new Object[]{1, 2, 3, 3}, idsPreparedSql.args);
+    }
+
+    @Test
+    void quoteIdentifier() {
+        assertEquals("`order`", MySqlDialect.INSTANCE.quoteIdentifier("order"));
+        assertEquals("\"userName\"", StandardDialect.INSTANCE.quoteIdentifier("userName"));
+        assertEquals("\"a\"\"b\"", H2Dialect.INSTANCE.quoteIdentifier("a\"b"));
+        assertEquals("s.\"order\"", PostgreSqlDialect.INSTANCE.quoteIdentifier("s.order"));
+        assertEquals("user_name", MySqlDialect.INSTANCE.quoteIdentifier("user_name"));
+        assertEquals("USER_NAME", StandardDialect.INSTANCE.quoteIdentifier("USER_NAME"));
+        assertEquals("user", MySqlDialect.INSTANCE.quoteIdentifier("user"));
+        assertEquals("\"user\"", PostgreSqlDialect.INSTANCE.quoteIdentifier("user"));
+    }
+
+    @Test
+    void parseWithDialect() {
+        Order order = new Order(1, "Mario Luo");
+        assertEquals("insert into `order`(id, `userName`) values(?, ?)",
+                JdbcTemplateUtils.bindInsert(order, MySqlDialect.INSTANCE).sql);
+        assertEquals("select id, \"userName\" from \"order\" where id in (?, ?)",
+                JdbcTemplateUtils.parseFindIn(Arrays.asList(1, 2), Order.class, H2Dialect.INSTANCE).sql);
+        assertEquals("update \"order\" set \"userName\"=? where id = ?",
+                JdbcTemplateUtils.bindUpdate(order, StandardDialect.INSTANCE).sql);
+        assertEquals("select \"userName\" as \"user\" from \"order\" where id = ?",
+                JdbcTemplateUtils.parseFind(1, Order.class, new String[]{"user"}, PostgreSqlDialect.INSTANCE).sql);
+
+        // 测试: 不区分方言时不引用
+        assertEquals("delete from order where id = ?", JdbcTemplateUtils.parseDelete(1, Order.class).sql);
+
+        // 测试: 不需要引用的名称使用相同的语句
+        assertSame(JdbcTemplateUtils.parseFind(1, User.class).sql,
+                JdbcTemplateUtils.parseFind(1, User.class, MySqlDialect.INSTANCE).sql);
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.github.lkqm.spring.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000000, histogram.getMax());
+        assertEquals(5000500, histogram.getMean(), 0.001);
+        assertNear(5000000, histogram.getValueAtPercentile(50));
+        assertNear(9900000, histogram.getValueAtPercentile(99));
+        assertEquals(10000000, histogram.getValueAtPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void bucket() {
+        for (long value : new long[]{0, 31, 32, 33, 1000, 123456789, Long.MAX_VALUE}) {
+            long bucketValue = LatencyHistogram.bucketValue(LatencyHistogram.bucketIndex(value));
+            assertTrue(Math.abs(bucketValue - value) <= value / 16, "value: " + value);
+        }
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected / 16, "expected: " + expected + ", actual: " + actual);
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.lkqm.spring.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+class ResultPublisherTest {
+
+    private JdbcTemplatePlus jdbcTemplate;
+
+    @BeforeEach
+    public void before() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setUrl("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;MODE=MYSQL");
+        jdbcTemplate = new JdbcTemplatePlus(dataSource);
+        jdbcTemplate.setStreamFetchSize(1);
+        jdbcTemplate.execute("create table user( id int auto_increment primary key, name varchar(255) )");
+        jdbcTemplate.insertAll(Arrays.asList(new User(1, "LW"), new User(2, "EGM"), new User(3, "LW")));
+    }
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.execute("drop table user");
+    }
+
+    @Test
+    void request() {
+        ResultPublisher<User> publisher = new ResultPublisher<>(jdbcTemplate, "select * from user order by id",
+                User.class);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        assertTrue(subscriber.ids.isEmpty());
+
+        // 测试: 按请求数量发出
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2), subscriber.ids);
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.ids);
+        assertTrue(subscriber.completed);
+        assertEquals(1, sessions());
+    }
+
+    @Test
+    void cancel() {
+        ResultPublisher<User> publisher = new ResultPublisher<>(jdbcTemplate, "select * from user where name = ?",
+                User.class, "LW");
+        TestSubscriber subscriber = new TestSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        assertEquals(2, sessions());
+
+        // 测试: 取消后释放连接
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(1), subscriber.ids);
+        assertFalse(subscriber.completed);
+        assertEquals(1, sessions());
+    }
+
+    @Test
+    void error() {
+        TestSubscriber subscriber = new TestSubscriber();
+        new ResultPublisher<>(jdbcTemplate, "select * from user", User.class).subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+
+        TestSubscriber badSql = new TestSubscriber();
+        new ResultPublisher<>(jdbcTemplate, "select * from not_exists", User.class).subscribe(badSql);
+        badSql.subscription.request(1);
+        assertTrue(badSql.error != null);
+        assertEquals(1, sessions());
+    }
+
+    @Test
+    void onNextThrows() {
+        TestSubscriber subscriber = new TestSubscriber();
+        subscriber.failOnId = 2;
+        new ResultPublisher<>(jdbcTemplate, "select * from user order by id", User.class).subscribe(subscriber);
+        subscriber.subscription.request(3);
+
+        // 测试: onNext抛出异常视为取消, 释放连接且不再发出信号
+        assertEquals(Arrays.asList(1, 2), subscriber.ids);
+        assertNull(subscriber.error);
+        assertFalse(subscriber.completed);
+        assertEquals(1, sessions());
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(1, 2), subscriber.ids);
+    }
+
+    private int sessions() {
+        return jdbcTemplate.queryForObject("select count(*) from information_schema.sessions", Integer.class);
+    }
+
+    private static class TestSubscriber implements Subscriber<User> {
+
+        private Subscription subscription;
+        private final List<Integer> ids = new ArrayList<>();
+        private boolean completed;
+        private Throwable error;
+        private Integer failOnId;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.subscription = s;
+        }
+
+        @Override
+        public void onNext(User user) {
+            ids.add(user.id);
+            if (user.id.equals(failOnId)) {
+                throw new IllegalStateException("Failed on " + user.id);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            this.error = t;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class User {
+        private Integer id;
+        private String name;
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.lkqm.spring.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SlowOperationLoggerTest {
+
+    private JdbcTemplatePlus jdbcTemplate;
+    private final List<String> logs = new ArrayList<>();
+    private SlowOperationLogger slowLogger;
+
+    @BeforeEach
+    public void before() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setUrl("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;MODE=MYSQL");
+        jdbcTemplate = new JdbcTemplatePlus(dataSource);
+        jdbcTemplate.execute("create table account( id bigint primary key, name varchar(255), password varchar(255))");
+        slowLogger = new SlowOperationLogger(0, TimeUnit.MILLISECONDS) {
+            @Override
+            protected void log(OperationEvent event, String message) {
+                logs.add(message);
+            }
+        };
+        slowLogger.setThreshold(OperationType.INSERT, 1, TimeUnit.NANOSECONDS);
+        slowLogger.setThreshold(OperationType.FIND, 1, TimeUnit.NANOSECONDS);
+        jdbcTemplate.addOperationListener(slowLogger);
+    }
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.execute("drop table account");
+    }
+
+    @Test
+    void redactAndTruncate() {
+        slowLogger.setRedactedColumns("password");
+        slowLogger.setMaxArgLength(5);
+        slowLogger.setMaxArgs(3);
+        jdbcTemplate.insert(new Account(1L, "LongName", "secret"));
+        jdbcTemplate.findByIds(Arrays.asList(1L, 2L, 3L, 4L, 5L), Account.class);
+        jdbcTemplate.deleteById(1L, Account.class);
+
+        assertEquals(2, logs.size());
+        assertTrue(logs.get(0).startsWith("Slow operation: INSERT Account"), logs.get(0));
+        assertTrue(logs.get(0).contains("args=[id=1, name=LongN...(8 chars), password=******]"), logs.get(0));
+        assertTrue(logs.get(1).contains("FIND (batch) Account"), logs.get(1));
+        assertTrue(logs.get(1).contains("args=[1, 2, 3, ...(8 args)]"), logs.get(1));
+
+        // 测试: 多行插入同样按列名脱敏
+        logs.clear();
+        slowLogger.setMaxArgs(6);
+        jdbcTemplate.insertAll(Arrays.asList(new Account(2L, "LW", "secret2"), new Account(3L, "EGM", "secret3")),
+                InsertMode.MULTI_VALUES);
+        assertEquals(1, logs.size());
+        assertTrue(logs.get(0).contains("args=[id=2, name=LW, password=******, id=3, name=EGM, password=******]"),
+                logs.get(0));
+    }
+
+    @Test
+    void rateLimit() {
+        slowLogger.setMaxLogsPerSecond(2);
+        for (long i = 1; i <= 5; i++) {
+            jdbcTemplate.insert(new Account(i, "LW", null));
+        }
+        assertTrue(logs.size() >= 2 && logs.size() < 5);
+        assertEquals(5, slowLogger.getSlowCount());
+        assertEquals(5 - logs.size(), slowLogger.getSuppressedCount());
+
+        slowLogger.setSampleRate(0);
+        jdbcTemplate.findById(1L, Account.class);
+        assertEquals(6 - logs.size(), slowLogger.getSuppressedCount());
+    }
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Account {
+        private Long id;
+        private String name;
+        private String password;
+    }
+}